@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth;
+
+import java.util.Arrays;
+
+/**
+ * Finds the first index at which two primitive arrays of the same type differ, without boxing
+ * their elements.
+ *
+ * <p>Integral arrays are first compared with {@link Arrays#equals}, which the JVM may intrinsify,
+ * so that equal arrays (the common case) are compared as quickly as possible. {@code double[]} and
+ * {@code float[]} arrays are compared by their bits, as {@link Subject#isEqualTo} specifies, with
+ * an explicit loop: their {@code Arrays.equals} isn't reliable under GWT.
+ */
+final class ArrayMismatch {
+  /**
+   * Returns the first index less than the length of both arrays at which they differ, or the
+   * length of the shorter array if one is a prefix of the other, or -1 if they are equal. Returns
+   * -2 if they are not primitive arrays of the same type.
+   */
+  static int firstMismatch(Object expected, Object actual) {
+    if (expected instanceof int[] && actual instanceof int[]) {
+      return firstMismatch((int[]) expected, (int[]) actual);
+    } else if (expected instanceof long[] && actual instanceof long[]) {
+      return firstMismatch((long[]) expected, (long[]) actual);
+    } else if (expected instanceof byte[] && actual instanceof byte[]) {
+      return firstMismatch((byte[]) expected, (byte[]) actual);
+    } else if (expected instanceof short[] && actual instanceof short[]) {
+      return firstMismatch((short[]) expected, (short[]) actual);
+    } else if (expected instanceof char[] && actual instanceof char[]) {
+      return firstMismatch((char[]) expected, (char[]) actual);
+    } else if (expected instanceof boolean[] && actual instanceof boolean[]) {
+      return firstMismatch((boolean[]) expected, (boolean[]) actual);
+    } else if (expected instanceof double[] && actual instanceof double[]) {
+      return firstMismatch((double[]) expected, (double[]) actual);
+    } else if (expected instanceof float[] && actual instanceof float[]) {
+      return firstMismatch((float[]) expected, (float[]) actual);
+    }
+    return -2;
+  }
+
+  static int firstMismatch(int[] expected, int[] actual) {
+    if (Arrays.equals(expected, actual)) {
+      return -1;
+    }
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != actual[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  static int firstMismatch(long[] expected, long[] actual) {
+    if (Arrays.equals(expected, actual)) {
+      return -1;
+    }
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != actual[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  static int firstMismatch(byte[] expected, byte[] actual) {
+    if (Arrays.equals(expected, actual)) {
+      return -1;
+    }
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != actual[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  static int firstMismatch(short[] expected, short[] actual) {
+    if (Arrays.equals(expected, actual)) {
+      return -1;
+    }
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != actual[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  static int firstMismatch(char[] expected, char[] actual) {
+    if (Arrays.equals(expected, actual)) {
+      return -1;
+    }
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != actual[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  static int firstMismatch(boolean[] expected, boolean[] actual) {
+    if (Arrays.equals(expected, actual)) {
+      return -1;
+    }
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != actual[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  static int firstMismatch(double[] expected, double[] actual) {
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (Double.doubleToLongBits(expected[i]) != Double.doubleToLongBits(actual[i])) {
+        return i;
+      }
+    }
+    return expected.length == actual.length ? -1 : length;
+  }
+
+  static int firstMismatch(float[] expected, float[] actual) {
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (Float.floatToIntBits(expected[i]) != Float.floatToIntBits(actual[i])) {
+        return i;
+      }
+    }
+    return expected.length == actual.length ? -1 : length;
+  }
+
+  private ArrayMismatch() {}
+}
@@ -31,14 +31,21 @@ final class AssertionErrorWithFacts extends AssertionError implements ErrorWithF
     return new AssertionErrorWithFacts(messages, facts, cause);
   }
 
+  private final ImmutableList<String> messages;
   final ImmutableList<Fact> facts;
 
+  /**
+   * The formatted message, computed on first use. Many failures are caught and never displayed, as
+   * with {@code Expect}, {@code ExpectFailure} and assumptions, so we avoid formatting them eagerly.
+   */
+  @NullableDecl private transient String message;
+
   /** Separate cause field, in case initCause() fails. */
   @NullableDecl private final Throwable cause;
 
   private AssertionErrorWithFacts(
       ImmutableList<String> messages, ImmutableList<Fact> facts, @NullableDecl Throwable cause) {
-    super(makeMessage(messages, facts));
+    this.messages = checkNotNull(messages);
     this.facts = checkNotNull(facts);
 
     this.cause = cause;
@@ -49,6 +56,16 @@ final class AssertionErrorWithFacts extends AssertionError implements ErrorWithF
     }
   }
 
+  @Override
+  public String getMessage() {
+    // Racy single-check: at worst, concurrent callers each compute an equal message.
+    String result = message;
+    if (result == null) {
+      message = result = makeMessage(messages, facts);
+    }
+    return result;
+  }
+
   @Override
   @SuppressWarnings("UnsynchronizedOverridesSynchronized")
   public Throwable getCause() {
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Platform.cleanStackTrace;
+import static com.google.common.util.concurrent.Uninterruptibles.joinUninterruptibly;
+import static com.google.common.util.concurrent.Uninterruptibles.putUninterruptibly;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link FailureStrategy} which passes failures on to another strategy from a background thread,
+ * so that the thread which made a failing check spends as little time on it as possible.
+ *
+ * <p>The failing thread only creates the failure, holding its facts and the raw stack trace which
+ * the JVM records for every exception, and puts it in a fixed-size buffer. The background thread
+ * then cleans its stack trace, formats its message and passes it on. This suits checks in
+ * latency-sensitive code whose failures are logged rather than thrown; since failures are passed on
+ * later, it's not useful with strategies, like {@link Truth#assert_}'s, which throw them.
+ *
+ * <p>When the buffer is full, the {@link OverflowPolicy} decides what happens to a further failure.
+ * For example:
+ *
+ * <pre>{@code
+ * static final AsyncFailureStrategy INVARIANTS =
+ *     AsyncFailureStrategy.create(LOG_FAILURE, 1024, OverflowPolicy.COUNT);
+ * static final StandardSubjectBuilder CHECK =
+ *     StandardSubjectBuilder.forCustomFailureStrategy(INVARIANTS);
+ * }</pre>
+ *
+ * <p>The delegate strategy is only ever called from one thread at a time. Exceptions it throws are
+ * ignored, so that they don't stop later failures from being passed on. Instances are safe to use
+ * from multiple threads.
+ */
+@GwtIncompatible("java.lang.Thread")
+public final class AsyncFailureStrategy implements DeferredCleaningFailureStrategy {
+
+  /** What to do with a failure when the buffer is full. */
+  public enum OverflowPolicy {
+    /** Discards the failure. The number discarded is available from {@link #droppedCount}. */
+    DROP,
+
+    /** Waits for the background thread to make room for the failure. */
+    BLOCK,
+
+    /**
+     * Discards the failure, but passes on a failure stating the number discarded after the
+     * background thread next passes one on, or when the strategy is closed.
+     */
+    COUNT,
+  }
+
+  /**
+   * Returns a strategy which passes failures on to {@code delegate}, buffering up to {@code
+   * capacity} of them, and starts its background thread. The thread is a daemon thread, so it
+   * doesn't stop the JVM from exiting, but {@link #close} should be called to pass on the failures
+   * still buffered before then.
+   */
+  public static AsyncFailureStrategy create(
+      FailureStrategy delegate, int capacity, OverflowPolicy overflowPolicy) {
+    checkArgument(capacity > 0, "capacity (%s) must be > 0", capacity);
+    AsyncFailureStrategy strategy =
+        new AsyncFailureStrategy(checkNotNull(delegate), capacity, checkNotNull(overflowPolicy));
+    strategy.consumer.start();
+    return strategy;
+  }
+
+  /** Put in the buffer by {@link #close} to stop the background thread. */
+  private static final AssertionError CLOSE = new AssertionError("close");
+
+  private final FailureStrategy delegate;
+  private final OverflowPolicy overflowPolicy;
+
+  /** A ring buffer whose slots are allocated up front, so accepting a failure allocates none. */
+  private final BlockingQueue<AssertionError> buffer;
+
+  private final Thread consumer;
+
+  /** The number of failures accepted but not yet passed on. Waiters wait on its monitor. */
+  private final AtomicLong pending = new AtomicLong();
+
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+
+  /** The number of failures dropped under {@link OverflowPolicy#COUNT} but not yet reported. */
+  private final AtomicLong unreportedDrops = new AtomicLong();
+
+  private volatile boolean closed;
+
+  private AsyncFailureStrategy(
+      FailureStrategy delegate, int capacity, OverflowPolicy overflowPolicy) {
+    this.delegate = delegate;
+    this.overflowPolicy = overflowPolicy;
+    this.buffer = new ArrayBlockingQueue<>(capacity);
+    this.consumer =
+        new Thread("Truth AsyncFailureStrategy") {
+          @Override
+          public void run() {
+            consume();
+          }
+        };
+    consumer.setDaemon(true);
+  }
+
+  /**
+   * Buffers {@code failure} to be passed on by the background thread, or, once the strategy is
+   * closed, passes it on directly.
+   */
+  @Override
+  public void fail(AssertionError failure) {
+    if (closed) {
+      synchronized (this) {
+        deliver(failure);
+      }
+      return;
+    }
+    pending.incrementAndGet();
+    if (overflowPolicy == OverflowPolicy.BLOCK) {
+      putUninterruptibly(buffer, failure);
+    } else if (!buffer.offer(failure)) {
+      finishPending(1);
+      dropped.incrementAndGet();
+      if (overflowPolicy == OverflowPolicy.COUNT) {
+        unreportedDrops.incrementAndGet();
+      }
+    }
+    if (closed) {
+      // close() may have drained the buffer before this failure was put in it.
+      drainBuffer();
+    }
+  }
+
+  private void consume() {
+    while (true) {
+      AssertionError failure;
+      try {
+        failure = buffer.take();
+      } catch (InterruptedException e) {
+        // Nothing else interrupts this thread, so carry on until close().
+        continue;
+      }
+      if (failure == CLOSE) {
+        return;
+      }
+      synchronized (this) {
+        deliver(failure);
+        reportDrops();
+      }
+      finishPending(1);
+    }
+  }
+
+  /** Cleans, formats and passes on {@code failure}. Callers must hold the lock on {@code this}. */
+  private void deliver(AssertionError failure) {
+    cleanStackTrace(failure);
+    failure.getMessage();
+    try {
+      delegate.fail(failure);
+    } catch (RuntimeException | AssertionError e) {
+      // There's nowhere to report this, and it mustn't stop later failures from being passed on.
+    }
+    delivered.incrementAndGet();
+  }
+
+  /** Passes on the number of failures dropped since the last report, if any. */
+  private void reportDrops() {
+    long drops = unreportedDrops.getAndSet(0);
+    if (drops > 0) {
+      deliver(
+          AssertionErrorWithFacts.create(
+              ImmutableList.<String>of(),
+              ImmutableList.of(fact("failures dropped because the buffer was full", drops)),
+              null));
+    }
+  }
+
+  /** Subtracts {@code count} from the pending failures, waking up waiters if none remain. */
+  private void finishPending(long count) {
+    if (pending.addAndGet(-count) == 0) {
+      synchronized (pending) {
+        pending.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until every failure accepted before the call has been passed on or dropped, or {@code
+   * timeout} elapses. Returns whether they had been.
+   */
+  public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (pending) {
+      while (pending.get() > 0) {
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(pending, remainingNanos);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Passes on the failures still buffered, along with the number dropped under {@link
+   * OverflowPolicy#COUNT}, and stops the background thread. Failures after this are passed on
+   * directly by the failing thread. Calling this more than once has no further effect.
+   */
+  public void close() {
+    synchronized (consumer) {
+      if (closed) {
+        return;
+      }
+      putUninterruptibly(buffer, CLOSE);
+      joinUninterruptibly(consumer);
+      closed = true;
+    }
+    drainBuffer();
+  }
+
+  /** Passes on the failures left in the buffer once the background thread has stopped. */
+  private void drainBuffer() {
+    synchronized (this) {
+      for (AssertionError failure; (failure = buffer.poll()) != null; ) {
+        deliver(failure);
+        finishPending(1);
+      }
+      reportDrops();
+    }
+  }
+
+  /** Returns the number of failures passed on to the delegate strategy, including drop counts. */
+  public long deliveredCount() {
+    return delivered.get();
+  }
+
+  /** Returns the number of failures discarded because the buffer was full. */
+  public long droppedCount() {
+    return dropped.get();
+  }
+}
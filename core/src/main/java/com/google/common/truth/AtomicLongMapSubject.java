@@ -17,10 +17,23 @@ package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.lenientFormat;
 import static com.google.common.collect.Maps.immutableEntry;
+import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.Fact.simpleFact;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import com.google.common.primitives.UnsignedLongs;
 import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -127,8 +140,292 @@ public final class AtomicLongMapSubject extends Subject<AtomicLongMapSubject, At
     }
   }
 
-  /*
-   * TODO(kak): Consider adding containsExactly() / containsExactlyEntriesIn() like MapSubject? If
-   * we do, see the TODO about containsEntry above.
+  /**
+   * Fails if the {@link AtomicLongMap} does not contain exactly the keys of {@code expectedMap},
+   * each with the value it maps to. Unlike {@link #containsEntry}, this distinguishes a key which
+   * is present with the value 0 from an absent key.
+   *
+   * <p>The {@code AtomicLongMap} is first read into a snapshot of its keys and primitive values,
+   * which is then compared without boxing the values. If the map is modified concurrently, the
+   * snapshot is not atomic: each value in it is one which its key had at some point during the
+   * read, a key removed during the read may appear with the value 0, and a key added during the
+   * read may be left out.
+   */
+  public void containsExactlyEntriesIn(Map<?, Long> expectedMap) {
+    compareSnapshot(new ExpectedMap(expectedMap), 0, /* toleranceFact= */ null);
+  }
+
+  /**
+   * Fails if the {@link AtomicLongMap} does not contain exactly the keys of {@code expectedMap},
+   * each with the same value. See {@link #containsExactlyEntriesIn(Map)} for how the maps are read.
+   * The expected map is read as it is compared, so it should not be modified concurrently.
+   */
+  public void containsExactlyEntriesIn(AtomicLongMap<?> expectedMap) {
+    compareSnapshot(new ExpectedAtomicLongMap(expectedMap), 0, /* toleranceFact= */ null);
+  }
+
+  /**
+   * Prepares for a check that the {@link AtomicLongMap} contains exactly the keys of an expected
+   * map, each with a value which differs from the expected one by at most {@code tolerance}. The
+   * maps are read as described for {@link #containsExactlyEntriesIn(Map)}.
+   *
+   * @param tolerance an inclusive upper bound on the difference between the actual and expected
+   *     values, which must not be negative
+   */
+  public TolerantAtomicLongMapComparison hasValuesWithin(final long tolerance) {
+    checkArgument(tolerance >= 0, "tolerance (%s) must be >= 0", tolerance);
+    return new TolerantAtomicLongMapComparison() {
+      @Override
+      public void of(Map<?, Long> expectedMap) {
+        compareSnapshot(new ExpectedMap(expectedMap), tolerance, fact("tolerance", tolerance));
+      }
+
+      @Override
+      public void of(AtomicLongMap<?> expectedMap) {
+        compareSnapshot(
+            new ExpectedAtomicLongMap(expectedMap), tolerance, fact("tolerance", tolerance));
+      }
+    };
+  }
+
+  /**
+   * A partially specified check that the values of an {@link AtomicLongMap} are within a tolerance
+   * of expected values. The subject and tolerance are specified earlier in the fluent call chain.
+   */
+  public abstract static class TolerantAtomicLongMapComparison {
+
+    // Prevent subclassing outside of this class
+    private TolerantAtomicLongMapComparison() {}
+
+    /**
+     * Fails if the subject does not contain exactly the keys of {@code expectedMap}, each with a
+     * value within the tolerance of the value it maps to.
+     */
+    public abstract void of(Map<?, Long> expectedMap);
+
+    /**
+     * Fails if the subject does not contain exactly the keys of {@code expectedMap}, each with a
+     * value within the tolerance of its value in {@code expectedMap}.
+     */
+    public abstract void of(AtomicLongMap<?> expectedMap);
+
+    /**
+     * @throws UnsupportedOperationException always
+     * @deprecated {@link Object#equals(Object)} is not supported on
+     *     TolerantAtomicLongMapComparison. If you meant to compare maps, use {@link #of} instead.
+     */
+    @Deprecated
+    @Override
+    public boolean equals(@NullableDecl Object o) {
+      throw new UnsupportedOperationException("If you meant to compare maps, use .of() instead.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always
+     * @deprecated {@link Object#hashCode()} is not supported on TolerantAtomicLongMapComparison
+     */
+    @Deprecated
+    @Override
+    public int hashCode() {
+      throw new UnsupportedOperationException("Subject.hashCode() is not supported.");
+    }
+  }
+
+  @SuppressWarnings("unchecked") // see containsEntry
+  private void compareSnapshot(
+      ExpectedValues expected, long tolerance, @NullableDecl Fact toleranceFact) {
+    AtomicLongMap<Object> map = (AtomicLongMap<Object>) checkNotNull(actual());
+    // The key set of asMap() is a view of the keys alone, so reading it doesn't box the values.
+    Object[] keys = map.asMap().keySet().toArray();
+    long[] values = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      values[i] = map.get(keys[i]);
+    }
+
+    Map<Object, Long> unexpected = new LinkedHashMap<>();
+    int unexpectedCount = 0;
+    List<WrongValue> wrongValues = new ArrayList<>();
+    int matchedKeys = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (!expected.containsKey(keys[i])) {
+        if (unexpectedCount++ < MAX_REPORTED_ENTRIES) {
+          unexpected.put(keys[i], values[i]);
+        }
+        continue;
+      }
+      matchedKeys++;
+      long expectedValue = expected.get(keys[i]);
+      long difference = difference(values[i], expectedValue);
+      if (UnsignedLongs.compare(difference, tolerance) > 0) {
+        wrongValues.add(new WrongValue(keys[i], expectedValue, values[i], difference));
+      }
+    }
+    Map<Object, Long> missing = new LinkedHashMap<>();
+    int missingCount = 0;
+    if (matchedKeys < expected.size()) {
+      Set<Object> actualKeys = new HashSet<>(Arrays.asList(keys));
+      for (Object key : expected.keys()) {
+        if (!actualKeys.contains(key) && missingCount++ < MAX_REPORTED_ENTRIES) {
+          missing.put(key, expected.get(key));
+        }
+      }
+    }
+    if (missing.isEmpty() && unexpected.isEmpty() && wrongValues.isEmpty()) {
+      return;
+    }
+
+    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+    if (!missing.isEmpty()) {
+      facts.add(fact("missing entries", missing));
+      if (missingCount > MAX_REPORTED_ENTRIES) {
+        facts.add(fact("total missing entries", missingCount));
+      }
+    }
+    if (!unexpected.isEmpty()) {
+      facts.add(fact("unexpected entries", unexpected));
+      if (unexpectedCount > MAX_REPORTED_ENTRIES) {
+        facts.add(fact("total unexpected entries", unexpectedCount));
+      }
+    }
+    if (!wrongValues.isEmpty()) {
+      facts.add(
+          fact(
+              "wrong values, largest difference first",
+              Ordering.from(LARGEST_DIFFERENCE_FIRST)
+                  .leastOf(wrongValues, MAX_REPORTED_ENTRIES)));
+      if (wrongValues.size() > MAX_REPORTED_ENTRIES) {
+        facts.add(fact("total wrong values", wrongValues.size()));
+      }
+    }
+    boolean showMaps =
+        expected.size() <= MAX_DISPLAYED_MAP_SIZE && keys.length <= MAX_DISPLAYED_MAP_SIZE;
+    facts.add(showMaps ? fact("expected", expected) : fact("expected size", expected.size()));
+    if (toleranceFact != null) {
+      facts.add(toleranceFact);
+    }
+    facts.add(showMaps ? butWas() : fact("but had size", keys.length));
+    failWithoutActual(facts.build());
+  }
+
+  /**
+   * The number of missing entries, unexpected entries, and wrong values beyond which each is only
+   * counted, rather than listed.
    */
+  private static final int MAX_REPORTED_ENTRIES = 20;
+
+  /** The size beyond which the expected and actual maps are described only by their sizes. */
+  private static final int MAX_DISPLAYED_MAP_SIZE = 100;
+
+  /** Returns the absolute difference between two values, as an unsigned value. */
+  private static long difference(long a, long b) {
+    return a >= b ? a - b : b - a;
+  }
+
+  private static final class WrongValue {
+    final Object key;
+    final long expected;
+    final long actual;
+    final long difference;
+
+    WrongValue(Object key, long expected, long actual, long difference) {
+      this.key = key;
+      this.expected = expected;
+      this.actual = actual;
+      this.difference = difference;
+    }
+
+    @Override
+    public String toString() {
+      return lenientFormat(
+          "%s (expected %s, but was %s, difference %s)",
+          key, expected, actual, UnsignedLongs.toString(difference));
+    }
+  }
+
+  private static final Comparator<WrongValue> LARGEST_DIFFERENCE_FIRST =
+      new Comparator<WrongValue>() {
+        @Override
+        public int compare(WrongValue a, WrongValue b) {
+          return UnsignedLongs.compare(b.difference, a.difference);
+        }
+      };
+
+  /** The expected keys and values of a comparison, read without boxing where possible. */
+  private abstract static class ExpectedValues {
+    abstract int size();
+
+    abstract boolean containsKey(Object key);
+
+    /** Returns the value of a key for which {@link #containsKey} is true. */
+    abstract long get(Object key);
+
+    abstract Iterable<?> keys();
+  }
+
+  private static final class ExpectedMap extends ExpectedValues {
+    private final Map<?, Long> map;
+
+    ExpectedMap(Map<?, Long> map) {
+      this.map = checkNotNull(map);
+    }
+
+    @Override
+    int size() {
+      return map.size();
+    }
+
+    @Override
+    boolean containsKey(Object key) {
+      return map.containsKey(key);
+    }
+
+    @Override
+    long get(Object key) {
+      return checkNotNull(map.get(key), "expected map has a null value for key %s", key);
+    }
+
+    @Override
+    Iterable<?> keys() {
+      return map.keySet();
+    }
+
+    @Override
+    public String toString() {
+      return map.toString();
+    }
+  }
+
+  private static final class ExpectedAtomicLongMap extends ExpectedValues {
+    private final AtomicLongMap<Object> map;
+
+    @SuppressWarnings("unchecked") // see containsEntry
+    ExpectedAtomicLongMap(AtomicLongMap<?> map) {
+      this.map = (AtomicLongMap<Object>) checkNotNull(map);
+    }
+
+    @Override
+    int size() {
+      return map.size();
+    }
+
+    @Override
+    boolean containsKey(Object key) {
+      return map.containsKey(key);
+    }
+
+    @Override
+    long get(Object key) {
+      return map.get(key);
+    }
+
+    @Override
+    Iterable<?> keys() {
+      return map.asMap().keySet();
+    }
+
+    @Override
+    public String toString() {
+      return map.toString();
+    }
+  }
 }
@@ -67,6 +67,8 @@ public abstract class Correspondence<A, E> {
    *   <li>The conversion to double may result in a loss of precision for some numeric types.
    *   <li>The {@link Correspondence#compare(Object, Object)} method throws a {@link
    *       NullPointerException} if either {@link Number} instance is null.
+   *   <li>It is a {@link TolerantNumericEquality}, which lets assertions about collections of
+   *       numbers match them by sorting them.
    * </ul>
    *
    * @param tolerance an inclusive upper bound on the difference between the double values of the
@@ -77,7 +79,12 @@ public abstract class Correspondence<A, E> {
     return new TolerantNumericEquality(tolerance);
   }
 
-  private static final class TolerantNumericEquality extends Correspondence<Number, Number> {
+  /**
+   * The {@link Correspondence} returned by {@link #tolerance(double)}. Assertions which recognize it
+   * compare the double values of numbers directly, and match collections of numbers in any order by
+   * sorting them rather than by comparing every actual number with every expected number.
+   */
+  public static final class TolerantNumericEquality extends Correspondence<Number, Number> {
 
     private final double tolerance;
 
@@ -85,6 +92,11 @@ public abstract class Correspondence<A, E> {
       this.tolerance = tolerance;
     }
 
+    /** Returns the tolerance, which has not necessarily been checked to be valid. */
+    public double tolerance() {
+      return tolerance;
+    }
+
     @Override
     public boolean compare(Number actual, Number expected) {
       checkTolerance(tolerance);
@@ -93,6 +105,12 @@ public abstract class Correspondence<A, E> {
       return MathUtil.equalWithinTolerance(actualDouble, expectedDouble, tolerance);
     }
 
+    /** As {@link #compare(Number, Number)}, but taking the double values themselves. */
+    public boolean compare(double actual, double expected) {
+      checkTolerance(tolerance);
+      return MathUtil.equalWithinTolerance(actual, expected, tolerance);
+    }
+
     @Override
     public String toString() {
       return "is a finite number within " + tolerance + " of";
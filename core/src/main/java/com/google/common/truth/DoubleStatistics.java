@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+/**
+ * Accumulates the count, mean, standard deviation, minimum and maximum of a sequence of doubles in
+ * a single pass, for the statistics assertions of {@link PrimitiveDoubleArraySubject} and {@code
+ * DoubleStreamSubject}.
+ *
+ * <p>The mean is a compensated (Kahan) sum divided by the count, and the variance comes from
+ * Welford's running sum of squared differences from the mean, so neither loses precision to
+ * cancellation over long sequences. Instances which accumulated different parts of a sequence can
+ * be {@linkplain #combine combined}, as a parallel stream's {@code collect} does.
+ *
+ * <p>NaN values are accumulated like any other, so they make every statistic but the count NaN.
+ */
+final class DoubleStatistics {
+  static DoubleStatistics of(double[] values) {
+    DoubleStatistics statistics = new DoubleStatistics();
+    for (double value : values) {
+      statistics.accept(value);
+    }
+    return statistics;
+  }
+
+  private long count;
+  private long nanCount;
+
+  private double sum;
+  private double sumCompensation;
+
+  /** The plain sum, which is correct when the compensated one is NaN because of an infinity. */
+  private double simpleSum;
+
+  private double runningMean;
+
+  /** The sum of squared differences from the mean, as accumulated by Welford's algorithm. */
+  private double sumOfSquaredDifferences;
+
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  void accept(double value) {
+    count++;
+    if (Double.isNaN(value)) {
+      nanCount++;
+    }
+    addToSum(value);
+    simpleSum += value;
+    double difference = value - runningMean;
+    runningMean += difference / count;
+    sumOfSquaredDifferences += difference * (value - runningMean);
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /** Adds the values accumulated by {@code other} to this instance's. */
+  void combine(DoubleStatistics other) {
+    if (other.count == 0) {
+      return;
+    }
+    long combinedCount = count + other.count;
+    double difference = other.runningMean - runningMean;
+    sumOfSquaredDifferences +=
+        other.sumOfSquaredDifferences
+            + difference * difference * ((double) count * other.count / combinedCount);
+    runningMean += difference * other.count / combinedCount;
+    count = combinedCount;
+    nanCount += other.nanCount;
+    addToSum(other.sum);
+    addToSum(-other.sumCompensation);
+    simpleSum += other.simpleSum;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  private void addToSum(double value) {
+    double compensated = value - sumCompensation;
+    double newSum = sum + compensated;
+    sumCompensation = (newSum - sum) - compensated;
+    sum = newSum;
+  }
+
+  long count() {
+    return count;
+  }
+
+  long nanCount() {
+    return nanCount;
+  }
+
+  /** Returns the mean, or NaN if there are no values. */
+  double mean() {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    double total = sum - sumCompensation;
+    if (Double.isNaN(total) && Double.isInfinite(simpleSum)) {
+      total = simpleSum;
+    }
+    return total / count;
+  }
+
+  /**
+   * Returns the population standard deviation, the square root of the mean squared difference from
+   * the mean, or NaN if there are no values.
+   */
+  double standardDeviation() {
+    return count == 0 ? Double.NaN : Math.sqrt(sumOfSquaredDifferences / count);
+  }
+
+  /** Returns the minimum, or positive infinity if there are no values. */
+  double min() {
+    return min;
+  }
+
+  /** Returns the maximum, or negative infinity if there are no values. */
+  double max() {
+    return max;
+  }
+}
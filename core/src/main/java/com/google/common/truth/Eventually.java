@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a way to make assertions about values which are expected to converge, such as the state
+ * of an asynchronous system, by repeating the assertions until they pass or a timeout elapses.
+ *
+ * <p>For example:
+ *
+ * <pre>{@code
+ * import static com.google.common.truth.Eventually.eventually;
+ *
+ * eventually(10, SECONDS)
+ *     .that(
+ *         new Supplier<Integer>() {
+ *           public Integer get() {
+ *             return queue.size();
+ *           }
+ *         },
+ *         new Eventually.Check<Integer>() {
+ *           public void check(StandardSubjectBuilder expect, Integer size) {
+ *             expect.that(size).isEqualTo(0);
+ *           }
+ *         });
+ * }</pre>
+ *
+ * <p>or, with lambdas, {@code eventually(10, SECONDS).that(queue::size, (expect, size) ->
+ * expect.that(size).isEqualTo(0))}.
+ *
+ * <p>The value is fetched again for every attempt, and the attempts are spaced by delays which
+ * start at a millisecond and double up to a second, so that a value which converges quickly is
+ * checked quickly, and one which takes longer isn't polled needlessly often. The failures of all
+ * but the last attempt are discarded. If the timeout elapses first, the failure of the last attempt
+ * is thrown, along with the number of attempts and the time they took.
+ */
+@GwtIncompatible("java.lang.Thread")
+public final class Eventually {
+  private static final long INITIAL_DELAY_NANOS = MILLISECONDS.toNanos(1);
+  private static final long MAX_DELAY_NANOS = SECONDS.toNanos(1);
+
+  /** Ends each attempt at its first failure, which {@link #that} then catches. */
+  private static final FailureStrategy THROW_ASSERTION_ERROR =
+      new FailureStrategy() {
+        @Override
+        public void fail(AssertionError failure) {
+          throw failure;
+        }
+      };
+
+  private static final StandardSubjectBuilder ATTEMPT =
+      StandardSubjectBuilder.forCustomFailureStrategy(THROW_ASSERTION_ERROR);
+
+  /**
+   * Begins a check which is retried until it passes or {@code timeout} elapses. The check is
+   * always attempted at least once.
+   */
+  public static Eventually eventually(long timeout, TimeUnit unit) {
+    checkArgument(timeout >= 0, "timeout (%s) must be >= 0", timeout);
+    return new Eventually(unit.toNanos(timeout));
+  }
+
+  /**
+   * A check made by {@link Eventually#that} on each value of its supplier. It may use {@code
+   * expect.about(...)} to make assertions with custom subjects.
+   */
+  public interface Check<T> {
+    /**
+     * Makes assertions about {@code actual} through {@code expect}. {@link AssertionError}s thrown
+     * directly, as by {@link Truth#assertThat}, are treated as failures too.
+     */
+    void check(StandardSubjectBuilder expect, T actual);
+  }
+
+  private final long timeoutNanos;
+
+  private Eventually(long timeoutNanos) {
+    this.timeoutNanos = timeoutNanos;
+  }
+
+  /**
+   * Runs {@code check} on values of {@code actual} until it passes, or fails with the last failure
+   * once the timeout has elapsed. Exceptions other than {@link AssertionError} thrown by the
+   * supplier or the check are propagated immediately. If the thread is interrupted while waiting,
+   * it fails with the last failure right away, leaving the thread's interrupt status set.
+   */
+  public <T> void that(Supplier<? extends T> actual, Check<? super T> check) {
+    checkNotNull(actual);
+    checkNotNull(check);
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    long delayNanos = INITIAL_DELAY_NANOS;
+    int attempts = 0;
+    AssertionError lastFailure;
+    while (true) {
+      attempts++;
+      try {
+        check.check(ATTEMPT, actual.get());
+        return;
+      } catch (AssertionError e) {
+        lastFailure = e;
+      }
+      long remainingNanos = timeoutNanos - stopwatch.elapsed(NANOSECONDS);
+      if (remainingNanos <= 0) {
+        break;
+      }
+      try {
+        NANOSECONDS.sleep(Math.min(delayNanos, remainingNanos));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      delayNanos = Math.min(delayNanos * 2, MAX_DELAY_NANOS);
+    }
+
+    String message = lastFailure.getMessage();
+    throw AssertionErrorWithFacts.create(
+        message == null ? ImmutableList.<String>of() : ImmutableList.of(message),
+        ImmutableList.of(
+            fact("attempts", attempts),
+            fact("elapsed", stopwatch.elapsed(MILLISECONDS) + " ms")),
+        lastFailure);
+  }
+}
@@ -20,16 +20,24 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.padStart;
 import static com.google.common.base.Strings.repeat;
 import static com.google.common.base.Throwables.getStackTraceAsString;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.truth.Expect.TestPhase.AFTER;
 import static com.google.common.truth.Expect.TestPhase.BEFORE;
 import static com.google.common.truth.Expect.TestPhase.DURING;
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Throwables;
 import com.google.common.truth.Truth.SimpleAssertionError;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.rules.ErrorCollector;
@@ -62,6 +70,10 @@ import org.junit.runners.model.Statement;
  * failures when the main thread finishes executing the test method. Thus, you must ensure that any
  * background threads complete their assertions before then, or your test may ignore their results.
  *
+ * <p>To run many independent checks concurrently, use {@link #inParallel}, which waits for all of
+ * them and reports their failures in the order of their items, regardless of how they were
+ * scheduled.
+ *
  * <p>To record failures for the purpose of testing that an assertion fails when it should, see
  * {@link ExpectFailure}.
  */
@@ -235,6 +247,129 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
     return gatherer.hasFailures();
   }
 
+  /**
+   * A check run by {@link #inParallel} on each of its items.
+   *
+   * <p>Implementations may be called concurrently, each time with a different item.
+   */
+  public interface ItemCheck<T> {
+    /**
+     * Makes assertions about {@code item}. Failures of the assertions made through {@code expect}
+     * are recorded, as are {@link AssertionError}s thrown by this method, and the remaining items
+     * are still checked.
+     */
+    void check(StandardSubjectBuilder expect, T item);
+  }
+
+  /**
+   * Runs {@code check} on each of {@code items} concurrently, on a pool of threads which is shut
+   * down before this method returns, and waits for all of them to complete. See {@link
+   * #inParallel(Iterable, Executor, ItemCheck)}.
+   */
+  public <T> void inParallel(Iterable<T> items, ItemCheck<? super T> check) {
+    List<T> itemList = new ArrayList<T>();
+    for (T item : items) {
+      itemList.add(item);
+    }
+    int threads = Math.min(itemList.size(), Runtime.getRuntime().availableProcessors());
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.max(threads, 1),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Expect-%d").build());
+    try {
+      inParallel(itemList, executor, check);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Runs {@code check} on each of {@code items} using {@code executor}, and waits for all of them
+   * to complete.
+   *
+   * <p>Each item is checked with its own {@link StandardSubjectBuilder}, whose failure messages
+   * begin with the item's index in {@code items} and the item itself. Its failures are kept
+   * separately until all the checks complete. They are then recorded by this {@code Expect} in the
+   * order of {@code items}, and, within each item, in the order in which they occurred, so the
+   * eventual report is the same however the checks were scheduled. If any check throws an
+   * exception other than an {@link AssertionError}, the first such exception, in the order of
+   * {@code items}, is rethrown after all the failures are recorded.
+   */
+  public <T> void inParallel(Iterable<T> items, Executor executor, ItemCheck<? super T> check) {
+    checkNotNull(executor);
+    checkNotNull(check);
+    gatherer.checkInRuleContext();
+    List<ItemTask<T>> tasks = new ArrayList<ItemTask<T>>();
+    for (T item : items) {
+      ItemTask<T> task = new ItemTask<T>(tasks.size(), item, check);
+      tasks.add(task);
+      executor.execute(task.future);
+    }
+
+    Throwable thrown = null;
+    for (ItemTask<T> task : tasks) {
+      try {
+        getUninterruptibly(task.future);
+      } catch (ExecutionException e) {
+        // ItemTask catches everything, so this could only come from a misbehaving executor.
+        task.thrown = e.getCause();
+      }
+      for (AssertionError failure : task.failures()) {
+        gatherer.fail(failure);
+      }
+      if (thrown == null) {
+        thrown = task.thrown;
+      }
+    }
+    if (thrown != null) {
+      throwIfUnchecked(thrown);
+      throw new RuntimeException(thrown);
+    }
+  }
+
+  /** The check of a single item by {@link #inParallel}, and the failures it produced. */
+  private static final class ItemTask<T> implements FailureStrategy, Runnable {
+    private final int index;
+    private final T item;
+    private final ItemCheck<? super T> check;
+    final FutureTask<Void> future = new FutureTask<Void>(this, null);
+
+    @GuardedBy("this")
+    private final List<AssertionError> failures = new ArrayList<AssertionError>();
+
+    // Written by the task and read after waiting for its future, which orders the two.
+    @NullableDecl Throwable thrown;
+
+    ItemTask(int index, T item, ItemCheck<? super T> check) {
+      this.index = index;
+      this.item = item;
+      this.check = check;
+    }
+
+    @Override
+    public void run() {
+      try {
+        StandardSubjectBuilder expect =
+            StandardSubjectBuilder.forCustomFailureStrategy(this)
+                .withMessage("item %s: %s", index, item);
+        check.check(expect, item);
+      } catch (AssertionError e) {
+        fail(e);
+      } catch (Throwable t) {
+        thrown = t;
+      }
+    }
+
+    @Override
+    public synchronized void fail(AssertionError failure) {
+      failures.add(failure);
+    }
+
+    synchronized List<AssertionError> failures() {
+      return new ArrayList<AssertionError>(failures);
+    }
+  }
+
   @Override
   void checkStatePreconditions() {
     gatherer.checkInRuleContext();
@@ -17,7 +17,6 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.base.Strings.padEnd;
 import static java.lang.Math.max;
 
 import com.google.common.collect.ImmutableList;
@@ -59,6 +58,8 @@ public final class Fact implements Serializable {
     return new Fact(key, null);
   }
 
+  private static final String INDENT = "    ";
+
   final String key;
   @NullableDecl final String value;
 
@@ -84,15 +85,22 @@ public final class Fact implements Serializable {
   static String makeMessage(ImmutableList<String> messages, ImmutableList<Fact> facts) {
     int longestKeyLength = 0;
     boolean seenNewlineInValue = false;
+    // An estimate of the message's length, so that the builder usually needn't grow.
+    int length = 0;
+    for (String message : messages) {
+      length += message.length() + 1;
+    }
     for (Fact fact : facts) {
+      length += fact.key.length() + 1;
       if (fact.value != null) {
         longestKeyLength = max(longestKeyLength, fact.key.length());
+        length += fact.value.length() + 2;
         // TODO(cpovirk): Look for other kinds of newlines.
-        seenNewlineInValue |= fact.value.contains("\n");
+        seenNewlineInValue |= fact.value.indexOf('\n') >= 0;
       }
     }
 
-    StringBuilder builder = new StringBuilder();
+    StringBuilder builder = new StringBuilder(length + facts.size() * (longestKeyLength + 6));
     for (String message : messages) {
       builder.append(message);
       builder.append('\n');
@@ -114,9 +122,12 @@ public final class Fact implements Serializable {
       } else if (seenNewlineInValue) {
         builder.append(fact.key);
         builder.append(":\n");
-        builder.append(indent(fact.value));
+        appendIndented(fact.value, builder);
       } else {
-        builder.append(padEnd(fact.key, longestKeyLength, ' '));
+        builder.append(fact.key);
+        for (int i = fact.key.length(); i < longestKeyLength; i++) {
+          builder.append(' ');
+        }
         builder.append(": ");
         builder.append(fact.value);
       }
@@ -126,10 +137,18 @@ public final class Fact implements Serializable {
     return builder.toString();
   }
 
-  private static String indent(String value) {
+  private static void appendIndented(String value, StringBuilder builder) {
     // We don't want to indent with \t because the text would align exactly with the stack trace.
     // We don't want to indent with \t\t because it would be very far for people with 8-space tabs.
     // Let's compromise and indent by 4 spaces, which is different than both 2- and 8-space tabs.
-    return "    " + value.replaceAll("\n", "\n    ");
+    builder.append(INDENT);
+    // Copy the value a line at a time, rather than a char at a time or through a regex.
+    int lineStart = 0;
+    for (int i = value.indexOf('\n'); i >= 0; i = value.indexOf('\n', lineStart)) {
+      builder.append(value, lineStart, i + 1);
+      builder.append(INDENT);
+      lineStart = i + 1;
+    }
+    builder.append(value, lineStart, value.length());
   }
 }
@@ -189,7 +189,9 @@ public final class FailureMetadata {
   }
 
   private void doFail(AssertionError failure) {
-    cleanStackTrace(failure);
+    if (!(strategy instanceof DeferredCleaningFailureStrategy)) {
+      cleanStackTrace(failure);
+    }
     strategy.fail(failure);
   }
 
@@ -59,9 +59,13 @@ import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.google.common.truth.SubjectUtils.DuplicateGroupedAndTyped;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -166,7 +170,10 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   /** Checks that the subject does not contain duplicate elements. */
   public final void containsNoDuplicates() {
     List<Entry<?>> duplicates = newArrayList();
-    for (Multiset.Entry<?> entry : LinkedHashMultiset.create(actual()).entrySet()) {
+    // A multiset already counts its copies, of which there may be far too many to iterate over.
+    Multiset<?> counts =
+        actual() instanceof Multiset ? (Multiset<?>) actual() : LinkedHashMultiset.create(actual());
+    for (Multiset.Entry<?> entry : counts.entrySet()) {
       if (entry.getCount() > 1) {
         duplicates.add(entry);
       }
@@ -192,10 +199,8 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   // TODO(cpovirk): Consider using makeElementFacts-style messages here, in contains(), etc.
   public final void containsAnyIn(Iterable<?> expected) {
     Collection<?> actual = iterableToCollection(actual());
-    for (Object item : expected) {
-      if (actual.contains(item)) {
-        return;
-      }
+    if (containsAny(actual, iterableToCollection(expected))) {
+      return;
     }
     if (hasMatchingToStringPair(actual, expected)) {
       failWithoutActual(
@@ -219,6 +224,48 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     containsAnyIn(asList(expected));
   }
 
+  /**
+   * Below this many elements on either side, looking up elements with {@link Collection#contains}
+   * is cheaper than building a hash index.
+   */
+  private static final int MIN_SIZE_TO_INDEX = 16;
+
+  /**
+   * Returns whether {@code actual.contains()} may be replaced with hash lookups when looking up the
+   * given elements. That's only safe for lists, whose {@code contains()} is based on {@code
+   * equals()}: other collections may be sets with their own notion of equality, such as {@code
+   * TreeSet}s with a custom comparator.
+   */
+  private static boolean shouldIndex(Collection<?> actual, Collection<?> lookups) {
+    return actual instanceof List
+        && Math.min(actual.size(), lookups.size()) >= MIN_SIZE_TO_INDEX;
+  }
+
+  /** Returns whether {@code actual} contains any of the {@code expected} elements. */
+  private static boolean containsAny(Collection<?> actual, Collection<?> expected) {
+    if (shouldIndex(actual, expected)) {
+      // Index the smaller side, and scan the larger one, which can stop at the first match.
+      boolean indexActual = actual.size() <= expected.size();
+      try {
+        Set<?> index = new HashSet<>(indexActual ? actual : expected);
+        for (Object item : indexActual ? expected : actual) {
+          if (index.contains(item)) {
+            return true;
+          }
+        }
+        return false;
+      } catch (RuntimeException e) {
+        // Some element can't be hashed, so fall back on contains().
+      }
+    }
+    for (Object item : expected) {
+      if (actual.contains(item)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Checks that the actual iterable contains at least all of the expected elements or fails. If an
    * element appears more than once in the expected elements to this call then it must appear at
@@ -247,29 +294,25 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
    */
   @CanIgnoreReturnValue
   public final Ordered containsAllIn(Iterable<?> expectedIterable) {
-    List<?> actual = Lists.newLinkedList(actual());
     final Collection<?> expected = iterableToCollection(expectedIterable);
+    if (actual() instanceof Multiset) {
+      Ordered result = containsAllInByCounts((Multiset<?>) actual(), expected);
+      if (result != null) {
+        return result;
+      }
+    }
+    List<?> actual = newArrayList(actual());
 
     List<Object> missing = newArrayList();
-    List<Object> actualNotInOrder = newArrayList();
-
-    boolean ordered = true;
-    // step through the expected elements...
-    for (Object e : expected) {
-      int index = actual.indexOf(e);
-      if (index != -1) { // if we find the element in the actual list...
-        // drain all the elements that come before that element into actualNotInOrder
-        moveElements(actual, actualNotInOrder, index);
-        // and remove the element from the actual list
-        actual.remove(0);
-      } else { // otherwise try removing it from actualNotInOrder...
-        if (actualNotInOrder.remove(e)) { // if it was in actualNotInOrder, we're not in order
-          ordered = false;
-        } else { // if it's not in actualNotInOrder, we're missing an expected element
-          missing.add(e);
-        }
-      }
+    boolean ordered;
+    try {
+      ordered = findMissingByHash(actual, expected, missing);
+    } catch (RuntimeException e) {
+      // Some element can't be hashed, so fall back on searching by equals() alone.
+      missing.clear();
+      ordered = findMissingByScan(actual, expected, missing);
     }
+
     // if we have any missing expected elements, fail
     if (!missing.isEmpty()) {
       return failAllIn(expected, missing);
@@ -283,16 +326,46 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      * actual iterable than the default of "but was," which may _sound_ like it should show only the
      * required elements, rather than the full actual iterable.
      */
-    return ordered
-        ? IN_ORDER
-        : new Ordered() {
-          @Override
-          public void inOrder() {
-            failWithActual(
-                simpleFact("required elements were all found, but order was wrong"),
-                fact("expected order for required elements", expected));
-          }
-        };
+    return ordered ? IN_ORDER : requiredElementsNotInOrder(expected);
+  }
+
+  private Ordered requiredElementsNotInOrder(final Collection<?> expected) {
+    return new Ordered() {
+      @Override
+      public void inOrder() {
+        failWithActual(
+            simpleFact("required elements were all found, but order was wrong"),
+            fact("expected order for required elements", expected));
+      }
+    };
+  }
+
+  /**
+   * Implements {@link #containsAllIn} for a multiset by comparing the counts of its elements, or
+   * returns null if the general algorithm should be used instead, because an element can't be
+   * hashed or because the check fails and the multisets are small enough to describe in full.
+   */
+  @NullableDecl
+  private Ordered containsAllInByCounts(Multiset<?> actual, Collection<?> expected) {
+    Multiset<?> expectedCounts = MultisetCounts.countsOf(expected);
+    if (expectedCounts == null) {
+      return null;
+    }
+    List<String> differences =
+        MultisetCounts.countDifferences(actual, expectedCounts, /* exact= */ false);
+    if (differences.isEmpty()) {
+      return MultisetCounts.inOrder(actual, expected, /* exact= */ false)
+          ? IN_ORDER
+          : requiredElementsNotInOrder(expected);
+    }
+    if (MultisetCounts.fitsToDescribe(actual, expectedCounts)) {
+      return null;
+    }
+    failWithoutActual(
+        fact("elements with too few copies", differences),
+        fact("expected to contain at least", expected),
+        butWas());
+    return ALREADY_FAILED;
   }
 
   private Ordered failAllIn(Collection<?> expected, Collection<?> missingRawObjects) {
@@ -332,6 +405,88 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     return containsAllIn(asList(expected));
   }
 
+  /**
+   * Adds to {@code missing} the expected elements which can't be paired with distinct actual
+   * elements, and returns whether the pairs are in order. Each expected element is paired with the
+   * first unpaired actual element after the previous pair, if there is one, and with any earlier
+   * unpaired actual element otherwise. This takes linear time, but requires hashable elements.
+   */
+  private static boolean findMissingByHash(
+      List<?> actual, Collection<?> expected, List<Object> missing) {
+    Map<Object, ActualPositions> positionsByElement = new HashMap<>();
+    int position = 0;
+    for (Object element : actual) {
+      ActualPositions positions = positionsByElement.get(element);
+      if (positions == null) {
+        positions = new ActualPositions();
+        positionsByElement.put(element, positions);
+      }
+      positions.after.addLast(position++);
+    }
+
+    boolean ordered = true;
+    int nextPosition = 0;
+    for (Object e : expected) {
+      ActualPositions positions = positionsByElement.get(e);
+      if (positions == null) {
+        missing.add(e);
+        continue;
+      }
+      // The actual elements we've passed without pairing are now out of order.
+      while (!positions.after.isEmpty() && positions.after.peekFirst() < nextPosition) {
+        positions.after.removeFirst();
+        positions.before++;
+      }
+      if (!positions.after.isEmpty()) {
+        nextPosition = positions.after.removeFirst() + 1;
+      } else if (positions.before > 0) {
+        positions.before--;
+        ordered = false;
+      } else {
+        missing.add(e);
+      }
+    }
+    return ordered;
+  }
+
+  /** The unpaired positions of an element in the actual iterable, for {@link #containsAllIn}. */
+  private static final class ActualPositions {
+    /** Positions after the last pair, in order. */
+    final ArrayDeque<Integer> after = new ArrayDeque<>();
+
+    /** The number of positions before the last pair. */
+    int before;
+  }
+
+  /**
+   * Does the same as {@link #findMissingByHash}, in quadratic time, comparing elements only with
+   * {@code equals}.
+   */
+  private static boolean findMissingByScan(
+      List<?> actualList, Collection<?> expected, List<Object> missing) {
+    List<?> actual = Lists.newLinkedList(actualList);
+    List<Object> actualNotInOrder = newArrayList();
+
+    boolean ordered = true;
+    // step through the expected elements...
+    for (Object e : expected) {
+      int index = actual.indexOf(e);
+      if (index != -1) { // if we find the element in the actual list...
+        // drain all the elements that come before that element into actualNotInOrder
+        moveElements(actual, actualNotInOrder, index);
+        // and remove the element from the actual list
+        actual.remove(0);
+      } else { // otherwise try removing it from actualNotInOrder...
+        if (actualNotInOrder.remove(e)) { // if it was in actualNotInOrder, we're not in order
+          ordered = false;
+        } else { // if it's not in actualNotInOrder, we're missing an expected element
+          missing.add(e);
+        }
+      }
+    }
+    return ordered;
+  }
+
   /**
    * Removes at most the given number of available elements from the input list and adds them to the
    * given output collection.
@@ -405,6 +560,14 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
       }
     }
 
+    if (actual() instanceof Multiset) {
+      Ordered result =
+          containsExactlyElementsInByCounts((Multiset<?>) actual(), required, addElementsInWarning);
+      if (result != null) {
+        return result;
+      }
+    }
+
     // Step through both iterators comparing elements pairwise.
     boolean isFirst = true;
     while (actualIter.hasNext() && requiredIter.hasNext()) {
@@ -463,13 +626,7 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
            * This containsExactly() call is a success. But the iterables were not in the same order,
            * so return an object that will fail the test if the user calls inOrder().
            */
-          return new Ordered() {
-            @Override
-            public void inOrder() {
-              failWithActual(
-                  simpleFact("contents match, but order was wrong"), fact("expected", required));
-            }
-          };
+          return contentsNotInOrder(required);
         }
         return failExactly(required, addElementsInWarning, missing, extra);
       }
@@ -499,6 +656,50 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     return IN_ORDER;
   }
 
+  private Ordered contentsNotInOrder(final Iterable<?> required) {
+    return new Ordered() {
+      @Override
+      public void inOrder() {
+        failWithActual(
+            simpleFact("contents match, but order was wrong"), fact("expected", required));
+      }
+    };
+  }
+
+  /**
+   * Implements {@link #containsExactlyElementsIn} for a multiset by comparing the counts of its
+   * elements, or returns null if the general algorithm should be used instead, because an element
+   * can't be hashed or because the check fails and the multisets are small enough to describe in
+   * full.
+   */
+  @NullableDecl
+  private Ordered containsExactlyElementsInByCounts(
+      Multiset<?> actual, Iterable<?> required, boolean addElementsInWarning) {
+    Multiset<?> requiredCounts = MultisetCounts.countsOf(required);
+    if (requiredCounts == null) {
+      return null;
+    }
+    List<String> differences =
+        MultisetCounts.countDifferences(actual, requiredCounts, /* exact= */ true);
+    if (differences.isEmpty()) {
+      return MultisetCounts.inOrder(actual, required, /* exact= */ true)
+          ? IN_ORDER
+          : contentsNotInOrder(required);
+    }
+    if (MultisetCounts.fitsToDescribe(actual, requiredCounts)) {
+      return null;
+    }
+    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+    facts.add(fact("elements with different counts", differences));
+    facts.add(fact("expected", required));
+    facts.add(butWas());
+    if (addElementsInWarning) {
+      facts.add(simpleFact(ITERABLE_PASSED_AS_VARARGS_WARNING));
+    }
+    failWithoutActual(facts.build());
+    return ALREADY_FAILED;
+  }
+
   private Ordered failExactly(
       Iterable<?> required,
       boolean addElementsInWarning,
@@ -510,11 +711,7 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     facts.add(fact("expected", required));
     facts.add(butWas());
     if (addElementsInWarning) {
-      facts.add(
-          simpleFact(
-              "Passing an iterable to the varargs method containsExactly(Object...) is "
-                  + "often not the correct thing to do. Did you mean to call "
-                  + "containsExactlyElementsIn(Iterable) instead?"));
+      facts.add(simpleFact(ITERABLE_PASSED_AS_VARARGS_WARNING));
     }
 
     failWithoutActual(facts.build());
@@ -690,10 +887,13 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
    */
   public final void containsNoneIn(Iterable<?> excluded) {
     Collection<?> actual = iterableToCollection(actual());
+    Set<?> excludedSet = Sets.newLinkedHashSet(excluded);
     Collection<Object> present = new ArrayList<>();
-    for (Object item : Sets.newLinkedHashSet(excluded)) {
-      if (actual.contains(item)) {
-        present.add(item);
+    if (!findPresentByIndex(actual, excludedSet, present)) {
+      for (Object item : excludedSet) {
+        if (actual.contains(item)) {
+          present.add(item);
+        }
       }
     }
     if (!present.isEmpty()) {
@@ -704,6 +904,35 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     }
   }
 
+  /**
+   * Adds to {@code present} the {@code excluded} elements which {@code actual} contains, in order,
+   * with a single pass over {@code actual}. Returns false, having added nothing, if the elements
+   * should be looked up with {@code actual.contains()} instead.
+   */
+  private static boolean findPresentByIndex(
+      Collection<?> actual, Set<?> excluded, Collection<Object> present) {
+    if (!shouldIndex(actual, excluded)) {
+      return false;
+    }
+    Set<Object> found = new HashSet<>();
+    try {
+      for (Object element : actual) {
+        if (excluded.contains(element)) {
+          found.add(element);
+        }
+      }
+    } catch (RuntimeException e) {
+      // Some element can't be hashed.
+      return false;
+    }
+    for (Object item : excluded) {
+      if (found.contains(item)) {
+        present.add(item);
+      }
+    }
+    return true;
+  }
+
   /**
    * Checks that the actual iterable contains none of the elements contained in the excluded array
    * or fails. (Duplicates are irrelevant to this test, which fails if any of the actual elements
@@ -727,6 +956,11 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
         public void inOrder() {}
       };
 
+  private static final String ITERABLE_PASSED_AS_VARARGS_WARNING =
+      "Passing an iterable to the varargs method containsExactly(Object...) is often not the "
+          + "correct thing to do. Did you mean to call containsExactlyElementsIn(Iterable) "
+          + "instead?";
+
   /**
    * Fails if the iterable is not strictly ordered, according to the natural ordering of its
    * elements. Strictly ordered means that each element in the iterable is <i>strictly</i> greater
@@ -880,6 +1114,11 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
    * check.
    */
   public static class UsingCorrespondence<A, E> {
+    /**
+     * The largest number of pairs of actual and expected elements whose comparisons are memoized,
+     * which takes a quarter of a byte each.
+     */
+    private static final int MAX_MEMOIZED_COMPARISONS = 1 << 26;
 
     private final IterableSubject subject;
     private final Correspondence<? super A, ? super E> correspondence;
@@ -1072,9 +1311,23 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
         }
       }
 
+      if (correspondence instanceof Correspondence.TolerantNumericEquality) {
+        double[] actualValues = ToleranceMatching.doubleValues(actualList);
+        double[] expectedValues = ToleranceMatching.doubleValues(expectedList);
+        if (actualValues != null && expectedValues != null) {
+          Ordered result =
+              ToleranceMatching.containsExactly(
+                  subject, correspondence, actualValues, expectedValues, tolerance());
+          if (result != null) {
+            return result;
+          }
+        }
+      }
+
       // Check if the elements correspond in order. This allows the common case of a passing test
       // using inOrder() to complete in linear time.
-      if (correspondInOrderExactly(actualList.iterator(), expectedList.iterator())) {
+      Comparisons comparisons = new Comparisons(expectedList.size(), actualList.size());
+      if (correspondInOrderExactly(comparisons, actualList, expectedList)) {
         return IN_ORDER;
       }
 
@@ -1084,7 +1337,7 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
       // Exceptions from Correspondence.compare are stored and treated as if false was returned.
       Correspondence.ExceptionStore compareExceptions = Correspondence.ExceptionStore.forCompare();
       ImmutableSetMultimap<Integer, Integer> candidateMapping =
-          findCandidateMapping(actualList, expectedList, compareExceptions);
+          findCandidateMapping(comparisons, actualList, expectedList, compareExceptions);
       if (failIfCandidateMappingHasMissingOrExtra(
           actualList, expectedList, candidateMapping, compareExceptions)) {
         return ALREADY_FAILED;
@@ -1154,14 +1407,16 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      * Returns false if any comparison threw an exception.
      */
     private boolean correspondInOrderExactly(
-        Iterator<? extends A> actual, Iterator<? extends E> expected) {
+        Comparisons comparisons, List<? extends A> actualList, List<? extends E> expectedList) {
+      Iterator<? extends A> actual = actualList.iterator();
+      Iterator<? extends E> expected = expectedList.iterator();
       Correspondence.ExceptionStore exceptions = Correspondence.ExceptionStore.forCompare();
-      while (actual.hasNext() && expected.hasNext()) {
+      for (int index = 0; actual.hasNext() && expected.hasNext(); index++) {
         A actualElement = actual.next();
         E expectedElement = expected.next();
         // Return false if the elements didn't correspond, or if the correspondence threw an
         // exception. We'll fall back on the any-order assertion in this case.
-        if (!correspondence.safeCompare(actualElement, expectedElement, exceptions)) {
+        if (!comparisons.compareOnce(index, actualElement, index, expectedElement, exceptions)) {
           return false;
         }
       }
@@ -1177,14 +1432,16 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      * elements did not correspond, and the exception added to the store.
      */
     private ImmutableSetMultimap<Integer, Integer> findCandidateMapping(
+        Comparisons comparisons,
         List<? extends A> actual,
         List<? extends E> expected,
         Correspondence.ExceptionStore exceptions) {
       ImmutableSetMultimap.Builder<Integer, Integer> mapping = ImmutableSetMultimap.builder();
       for (int actualIndex = 0; actualIndex < actual.size(); actualIndex++) {
+        A actualElement = actual.get(actualIndex);
         for (int expectedIndex = 0; expectedIndex < expected.size(); expectedIndex++) {
-          if (correspondence.safeCompare(
-              actual.get(actualIndex), expected.get(expectedIndex), exceptions)) {
+          if (comparisons.correspond(
+              actualIndex, actualElement, expectedIndex, expected.get(expectedIndex), exceptions)) {
             mapping.put(actualIndex, expectedIndex);
           }
         }
@@ -1192,6 +1449,132 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
       return mapping.build();
     }
 
+    /**
+     * Returns the tolerance of the correspondence, which must be a {@link
+     * Correspondence.TolerantNumericEquality}. Collections of numbers compared with one are matched
+     * by {@link ToleranceMatching}, which sorts them rather than comparing every pair.
+     */
+    private double tolerance() {
+      return ((Correspondence.TolerantNumericEquality) correspondence).tolerance();
+    }
+
+    /**
+     * The results of comparing elements of the actual list with elements of the expected list, by
+     * their indexes, so that the phases of an assertion, such as the in-order check and the search
+     * for a candidate mapping, pass each pair to {@link Correspondence#compare} at most once. This
+     * matters for correspondences which are expensive to compare, like ones which diff protos.
+     *
+     * <p>The in-order check compares each pair at most once, and usually passes, so its results are
+     * only logged, taking memory proportional to the number of pairs it compared. Any later phase
+     * may compare every pair, so the first call to {@link #correspond} allocates two bits per pair
+     * in a {@link BitSet}, for whether it has been compared and whether it corresponded, and
+     * copies the log into it. Comparisons which threw, of which there are usually none, keep their
+     * exceptions in a map, so that each phase can add them to its own {@link
+     * Correspondence.ExceptionStore}. Lists with too many pairs to hold bits for aren't memoized.
+     */
+    private final class Comparisons {
+      private final int expectedSize;
+      private final boolean memoized;
+
+      /**
+       * The bits of the pairs compared by {@link #compareOnce}: the first bit of a pair's two if it
+       * didn't correspond, or the second if it did. The in-order checks compare each actual element
+       * at most once, so there are at most as many as there are actual elements.
+       */
+      @NullableDecl private final int[] log;
+
+      private int logSize;
+
+      @NullableDecl private BitSet bits;
+      private final Map<Integer, RuntimeException> exceptions = new HashMap<>();
+
+      Comparisons(int expectedSize, int actualSize) {
+        this.expectedSize = expectedSize;
+        this.memoized = (long) expectedSize * actualSize <= MAX_MEMOIZED_COMPARISONS;
+        this.log = memoized ? new int[actualSize] : null;
+      }
+
+      /**
+       * Returns whether {@code actual}, at {@code actualIndex} in the actual list, corresponds to
+       * {@code expected}, at {@code expectedIndex} in the expected list, which must not have been
+       * compared before. If the comparison throws, adds the exception to {@code exceptionStore} and
+       * returns false.
+       */
+      boolean compareOnce(
+          int actualIndex,
+          @NullableDecl A actual,
+          int expectedIndex,
+          @NullableDecl E expected,
+          Correspondence.ExceptionStore exceptionStore) {
+        if (!memoized) {
+          return correspondence.safeCompare(actual, expected, exceptionStore);
+        }
+        int bit = bit(actualIndex, expectedIndex);
+        boolean result = compare(bit, actual, expected, exceptionStore);
+        log[logSize++] = result ? bit + 1 : bit;
+        return result;
+      }
+
+      /**
+       * Returns whether {@code actual}, at {@code actualIndex} in the actual list, corresponds to
+       * {@code expected}, at {@code expectedIndex} in the expected list. If the comparison throws,
+       * now or when it was first made, adds the exception to {@code exceptionStore} and returns
+       * false.
+       */
+      boolean correspond(
+          int actualIndex,
+          @NullableDecl A actual,
+          int expectedIndex,
+          @NullableDecl E expected,
+          Correspondence.ExceptionStore exceptionStore) {
+        if (!memoized) {
+          return correspondence.safeCompare(actual, expected, exceptionStore);
+        }
+        if (bits == null) {
+          bits = new BitSet();
+          for (int i = 0; i < logSize; i++) {
+            bits.set(log[i] & ~1);
+            bits.set(log[i]);
+          }
+        }
+        int bit = bit(actualIndex, expectedIndex);
+        if (bits.get(bit)) {
+          if (bits.get(bit + 1)) {
+            return true;
+          }
+          RuntimeException exception = exceptions.get(bit);
+          if (exception != null) {
+            exceptionStore.add(Correspondence.class, exception, "compare", actual, expected);
+          }
+          return false;
+        }
+        bits.set(bit);
+        boolean result = compare(bit, actual, expected, exceptionStore);
+        if (result) {
+          bits.set(bit + 1);
+        }
+        return result;
+      }
+
+      private int bit(int actualIndex, int expectedIndex) {
+        return 2 * (actualIndex * expectedSize + expectedIndex);
+      }
+
+      private boolean compare(
+          int bit,
+          @NullableDecl A actual,
+          @NullableDecl E expected,
+          Correspondence.ExceptionStore exceptionStore) {
+        try {
+          return correspondence.compare(actual, expected);
+        } catch (RuntimeException e) {
+          exceptions.put(bit, e);
+          exceptionStore.add(Correspondence.class, e, "compare", actual, expected);
+          return false;
+        }
+      }
+    }
+
     /**
      * Given a list of actual elements, a list of expected elements, and a many:many mapping between
      * actual and expected elements specified as a multimap of indexes into the actual list to
@@ -1419,9 +1802,22 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     public Ordered containsAllIn(final Iterable<? extends E> expected) {
       List<A> actualList = iterableToList(getCastActual());
       List<? extends E> expectedList = iterableToList(expected);
+      if (correspondence instanceof Correspondence.TolerantNumericEquality) {
+        double[] actualValues = ToleranceMatching.doubleValues(actualList);
+        double[] expectedValues = ToleranceMatching.doubleValues(expectedList);
+        if (actualValues != null && expectedValues != null) {
+          Ordered result =
+              ToleranceMatching.containsAll(
+                  subject, correspondence, actualValues, expectedValues, tolerance());
+          if (result != null) {
+            return result;
+          }
+        }
+      }
       // Check if the expected elements correspond in order to any subset of the actual elements.
       // This allows the common case of a passing test using inOrder() to complete in linear time.
-      if (correspondInOrderAllIn(actualList.iterator(), expectedList.iterator())) {
+      Comparisons comparisons = new Comparisons(expectedList.size(), actualList.size());
+      if (correspondInOrderAllIn(comparisons, actualList, expectedList)) {
         return IN_ORDER;
       }
       // We know they don't correspond in order, so we're going to have to do an any-order test.
@@ -1429,7 +1825,7 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
       // it for completeness.
       Correspondence.ExceptionStore compareExceptions = Correspondence.ExceptionStore.forCompare();
       ImmutableSetMultimap<Integer, Integer> candidateMapping =
-          findCandidateMapping(actualList, expectedList, compareExceptions);
+          findCandidateMapping(comparisons, actualList, expectedList, compareExceptions);
       if (failIfCandidateMappingHasMissing(
           actualList, expectedList, candidateMapping, compareExceptions)) {
         return ALREADY_FAILED;
@@ -1494,7 +1890,7 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      * elements satisfies the correspondence. Returns false if any comparison threw an exception.
      */
     private boolean correspondInOrderAllIn(
-        Iterator<? extends A> actual, Iterator<? extends E> expected) {
+        Comparisons comparisons, List<? extends A> actualList, List<? extends E> expectedList) {
       // We take a greedy approach here, iterating through the expected elements and pairing each
       // with the first applicable actual element. This is fine for the in-order test, since there's
       // no way that paring an expected element with a later actual element permits a solution which
@@ -1502,32 +1898,27 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
       // pair an expected element with a later actual element so that we can pair the earlier actual
       // element with a later expected element, but that doesn't apply here.)
       Correspondence.ExceptionStore exceptions = Correspondence.ExceptionStore.forCompare();
-      while (expected.hasNext()) {
-        E expectedElement = expected.next();
-        // Return false if we couldn't find the expected exception, or if the correspondence threw
-        // an exception. We'll fall back on the any-order assertion in this case.
-        if (!findCorresponding(actual, expectedElement, exceptions) || !exceptions.isEmpty()) {
+      Iterator<? extends A> actual = actualList.iterator();
+      int actualIndex = 0;
+      int expectedIndex = 0;
+      for (E expectedElement : expectedList) {
+        // Advance through the actual elements looking for one which corresponds. Return false if
+        // we couldn't find one, or if the correspondence threw an exception. We'll fall back on
+        // the any-order assertion in this case.
+        boolean found = false;
+        while (!found && actual.hasNext()) {
+          found =
+              comparisons.compareOnce(
+                  actualIndex++, actual.next(), expectedIndex, expectedElement, exceptions);
+        }
+        if (!found || !exceptions.isEmpty()) {
           return false;
         }
+        expectedIndex++;
       }
       return true;
     }
 
-    /**
-     * Advances the actual iterator looking for an element which corresponds to the expected
-     * element. Returns whether or not it finds one.
-     */
-    private boolean findCorresponding(
-        Iterator<? extends A> actual, E expectedElement, Correspondence.ExceptionStore exceptions) {
-      while (actual.hasNext()) {
-        A actualElement = actual.next();
-        if (correspondence.safeCompare(actualElement, expectedElement, exceptions)) {
-          return true;
-        }
-      }
-      return false;
-    }
-
     /**
      * Given a list of actual elements, a list of expected elements, and a many:many mapping between
      * actual and expected elements specified as a multimap of indexes into an actual list to
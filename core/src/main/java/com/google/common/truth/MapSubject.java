@@ -28,12 +28,14 @@ import static com.google.common.truth.SubjectUtils.retainMatchingToString;
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -68,7 +70,8 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
       return;
     }
 
-    boolean mapEquals = containsExactlyEntriesInAnyOrder((Map<?, ?>) other, "is equal to");
+    boolean mapEquals =
+        containsExactlyEntriesInAnyOrder((Map<?, ?>) other, "is equal to").isEmpty();
     if (mapEquals) {
       failWithoutActual(
           simpleFact(
@@ -230,27 +233,30 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
         return ALREADY_FAILED;
       }
     }
-    boolean containsAnyOrder = containsExactlyEntriesInAnyOrder(expectedMap, "contains exactly");
-    if (containsAnyOrder) {
-      return new MapInOrder(expectedMap, "contains exactly these entries in order");
-    } else {
+    MapDifference<Object, Object, Object> diff =
+        containsExactlyEntriesInAnyOrder(expectedMap, "contains exactly");
+    if (!diff.isEmpty()) {
       return ALREADY_FAILED;
     }
+    return diff.keysInOrder()
+        ? IN_ORDER
+        : new MapInOrder(expectedMap, "contains exactly these entries in order");
   }
 
-  @CanIgnoreReturnValue
-  private boolean containsExactlyEntriesInAnyOrder(Map<?, ?> expectedMap, String failVerb) {
+  /** Returns the difference between the maps, having failed if it is not empty. */
+  private MapDifference<Object, Object, Object> containsExactlyEntriesInAnyOrder(
+      Map<?, ?> expectedMap, String failVerb) {
     MapDifference<Object, Object, Object> diff =
         MapDifference.create(actual(), expectedMap, EQUALITY);
     if (diff.isEmpty()) {
-      return true;
+      return diff;
     }
     failWithoutActual(
         simpleFact(
             lenientFormat(
                 "Not true that %s %s <%s>. It %s",
                 actualAsString(), failVerb, expectedMap, diff.describe(VALUE_DIFFERENCE_FORMAT))));
-    return false;
+    return diff;
   }
 
   private interface ValueTester<A, E> {
@@ -272,40 +278,77 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
     private final Map<K, E> missing;
     private final Map<K, A> unexpected;
     private final Map<K, ValueDifference<A, E>> wrongValues;
+    private final boolean keysInOrder;
 
     static <K, A, E> MapDifference<K, A, E> create(
         Map<? extends K, ? extends A> actual,
         Map<? extends K, ? extends E> expected,
         ValueTester<? super A, ? super E> valueTester) {
-      Map<K, A> unexpected = new LinkedHashMap<>(actual);
+      // Neither map is copied, since they may be very large. Entries are matched up by walking
+      // both maps in step for as long as their keys are in the same order, and by lookups after.
       Map<K, E> missing = new LinkedHashMap<>();
       Map<K, ValueDifference<A, E>> wrongValues = new LinkedHashMap<>();
+      Iterator<? extends Entry<? extends K, ? extends A>> actualEntries =
+          actual.entrySet().iterator();
+      boolean keysInOrder = true;
+      int matchedKeys = 0;
       for (Entry<? extends K, ? extends E> expectedEntry : expected.entrySet()) {
         K expectedKey = expectedEntry.getKey();
         E expectedValue = expectedEntry.getValue();
-        if (actual.containsKey(expectedKey)) {
-          A actualValue = unexpected.remove(expectedKey);
-          if (!valueTester.test(actualValue, expectedValue)) {
-            wrongValues.put(expectedKey, new ValueDifference<>(actualValue, expectedValue));
-          }
+        A actualValue;
+        if (keysInOrder && actualEntries.hasNext()) {
+          Entry<? extends K, ? extends A> actualEntry = actualEntries.next();
+          keysInOrder = Objects.equal(actualEntry.getKey(), expectedKey);
+          actualValue = actualEntry.getValue();
         } else {
-          missing.put(expectedKey, expectedValue);
+          keysInOrder = false;
+          actualValue = null;
+        }
+        if (!keysInOrder) {
+          if (!actual.containsKey(expectedKey)) {
+            missing.put(expectedKey, expectedValue);
+            continue;
+          }
+          actualValue = actual.get(expectedKey);
+        }
+        matchedKeys++;
+        if (!valueTester.test(actualValue, expectedValue)) {
+          wrongValues.put(expectedKey, new ValueDifference<>(actualValue, expectedValue));
+        }
+      }
+      keysInOrder &= !actualEntries.hasNext();
+
+      Map<K, A> unexpected = new LinkedHashMap<>();
+      if (matchedKeys < actual.size()) {
+        for (Entry<? extends K, ? extends A> actualEntry : actual.entrySet()) {
+          if (!expected.containsKey(actualEntry.getKey())) {
+            unexpected.put(actualEntry.getKey(), actualEntry.getValue());
+          }
         }
       }
-      return new MapDifference<>(missing, unexpected, wrongValues);
+      return new MapDifference<>(missing, unexpected, wrongValues, keysInOrder);
     }
 
     private MapDifference(
-        Map<K, E> missing, Map<K, A> unexpected, Map<K, ValueDifference<A, E>> wrongValues) {
+        Map<K, E> missing,
+        Map<K, A> unexpected,
+        Map<K, ValueDifference<A, E>> wrongValues,
+        boolean keysInOrder) {
       this.missing = missing;
       this.unexpected = unexpected;
       this.wrongValues = wrongValues;
+      this.keysInOrder = keysInOrder;
     }
 
     boolean isEmpty() {
       return missing.isEmpty() && unexpected.isEmpty() && wrongValues.isEmpty();
     }
 
+    /** Returns whether the keys of both maps were iterated in the same order. */
+    boolean keysInOrder() {
+      return keysInOrder;
+    }
+
     String describe(Function<ValueDifference<A, E>, String> valueDiffFormat) {
       boolean includeKeyTypes = includeKeyTypes();
       StringBuilder description = new StringBuilder();
@@ -413,9 +456,7 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
 
     @Override
     public void inOrder() {
-      List<?> expectedKeyOrder = Lists.newArrayList(expectedMap.keySet());
-      List<?> actualKeyOrder = Lists.newArrayList(actual().keySet());
-      if (!actualKeyOrder.equals(expectedKeyOrder)) {
+      if (!Iterables.elementsEqual(actual().keySet(), expectedMap.keySet())) {
         failWithoutActual(
             simpleFact(
                 lenientFormat(
@@ -604,6 +645,9 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
                 }
               });
       if (diff.isEmpty()) {
+        if (diff.keysInOrder()) {
+          return IN_ORDER;
+        }
         return new MapInOrder(
             expectedMap,
             lenientFormat(
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth;
+
+import static com.google.common.base.Strings.lenientFormat;
+
+import com.google.common.base.Function;
+import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Compares {@link Multiset}s by the counts of their {@linkplain Multiset#entrySet() entries}, so
+ * that the time taken depends on the number of distinct elements rather than on the number of
+ * copies of each, which may run into the billions.
+ */
+final class MultisetCounts {
+  /**
+   * The size up to which failures are left to the general {@link IterableSubject} algorithms, which
+   * describe the missing and unexpected elements copy by copy.
+   */
+  private static final int MAX_DESCRIBED_SIZE = 1000;
+
+  /**
+   * Returns {@code elements} if it is a multiset, or else a new multiset of its elements, or null
+   * if some element can't be hashed.
+   */
+  @NullableDecl
+  static Multiset<?> countsOf(Iterable<?> elements) {
+    if (elements instanceof Multiset) {
+      return (Multiset<?>) elements;
+    }
+    try {
+      return LinkedHashMultiset.create(elements);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /** Returns whether a failure comparing the multisets is small enough to describe in full. */
+  static boolean fitsToDescribe(Multiset<?> actual, Multiset<?> expected) {
+    return actual.size() <= MAX_DESCRIBED_SIZE && expected.size() <= MAX_DESCRIBED_SIZE;
+  }
+
+  /**
+   * Returns descriptions of the elements whose counts in {@code actual} differ from their counts in
+   * {@code expected}: all of them if {@code exact}, or else only those with fewer copies in {@code
+   * actual}.
+   */
+  static List<String> countDifferences(Multiset<?> actual, Multiset<?> expected, boolean exact) {
+    List<String> differences = new ArrayList<>();
+    for (Multiset.Entry<?> entry : expected.entrySet()) {
+      int actualCount = actual.count(entry.getElement());
+      if (exact ? actualCount != entry.getCount() : actualCount < entry.getCount()) {
+        differences.add(describeCount(entry.getElement(), entry.getCount(), actualCount));
+      }
+    }
+    if (exact) {
+      for (Multiset.Entry<?> entry : actual.entrySet()) {
+        if (!expected.contains(entry.getElement())) {
+          differences.add(describeCount(entry.getElement(), 0, entry.getCount()));
+        }
+      }
+    }
+    return differences;
+  }
+
+  static String describeCount(@NullableDecl Object element, int expectedCount, int actualCount) {
+    return lenientFormat("%s (expected count %s, but was %s)", element, expectedCount, actualCount);
+  }
+
+  /**
+   * Returns whether iterating over {@code actual} would produce the elements of {@code expected} in
+   * the same order: exactly, if {@code exact}, or else with other elements in between.
+   */
+  static boolean inOrder(Multiset<?> actual, Iterable<?> expected, boolean exact) {
+    Iterator<? extends Multiset.Entry<?>> actualEntries = actual.entrySet().iterator();
+    Object current = null;
+    int remaining = 0; // the copies of current which are not yet matched
+    for (Multiset.Entry<?> run : runs(expected)) {
+      if (remaining == 0 || !Objects.equal(current, run.getElement())) {
+        do {
+          if (!actualEntries.hasNext() || (exact && remaining > 0)) {
+            return false;
+          }
+          Multiset.Entry<?> entry = actualEntries.next();
+          current = entry.getElement();
+          remaining = entry.getCount();
+        } while (!exact && !Objects.equal(current, run.getElement()));
+        if (!Objects.equal(current, run.getElement())) {
+          return false;
+        }
+      }
+      // All copies of an element are in a single entry, so there's nowhere else to find more.
+      if (run.getCount() > remaining) {
+        return false;
+      }
+      remaining -= run.getCount();
+    }
+    return !exact || (remaining == 0 && !actualEntries.hasNext());
+  }
+
+  /** Returns the runs of equal elements of an iterable, or at least shorter runs which add up. */
+  private static Iterable<? extends Multiset.Entry<?>> runs(Iterable<?> elements) {
+    if (elements instanceof Multiset) {
+      return ((Multiset<?>) elements).entrySet();
+    }
+    return Iterables.transform(
+        elements,
+        new Function<Object, Multiset.Entry<?>>() {
+          @Override
+          public Multiset.Entry<?> apply(@NullableDecl Object element) {
+            return Multisets.immutableEntry(element, 1);
+          }
+        });
+  }
+
+  private MultisetCounts() {}
+}
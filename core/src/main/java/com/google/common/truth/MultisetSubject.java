@@ -16,13 +16,22 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.truth.Fact.fact;
 
 import com.google.common.collect.Multiset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
  * Propositions for {@link Multiset} subjects.
  *
+ * <p>The assertions which compare elements with multiplicity, such as {@link
+ * #containsExactlyElementsIn} and {@link #containsAllIn}, compare the counts of the distinct
+ * elements of the multiset rather than iterating over every copy of them, so they remain fast for
+ * elements with very large counts.
+ *
  * @author Kurt Alfred Kluever
  */
 public final class MultisetSubject extends IterableSubject {
@@ -43,4 +52,44 @@ public final class MultisetSubject extends IterableSubject {
     int actualCount = ((Multiset<?>) actual()).count(element);
     check("count(%s)", element).that(actualCount).isEqualTo(expectedCount);
   }
+
+  /**
+   * Fails if the multiset does not have the same count of every element as {@code expected}. Only
+   * the counts of distinct elements are compared, so this takes time proportional to the number of
+   * distinct elements, however many copies of them there are.
+   */
+  public final void containsExactlyCountsIn(Multiset<?> expected) {
+    List<String> differences =
+        MultisetCounts.countDifferences((Multiset<?>) actual(), expected, /* exact= */ true);
+    if (!differences.isEmpty()) {
+      failWithActual(
+          fact("elements with different counts", differences), fact("expected", expected));
+    }
+  }
+
+  /**
+   * Fails if any of the keys of {@code expectedCounts} does not have the count it maps to. Elements
+   * which are not keys of {@code expectedCounts} may have any count.
+   */
+  public final void hasCounts(Map<?, Integer> expectedCounts) {
+    Multiset<?> multiset = (Multiset<?>) actual();
+    List<String> differences = new ArrayList<>();
+    for (Map.Entry<?, Integer> entry : expectedCounts.entrySet()) {
+      int expectedCount = entry.getValue();
+      checkArgument(
+          expectedCount >= 0,
+          "expected count of %s (%s) must be >= 0",
+          entry.getKey(),
+          expectedCount);
+      int actualCount = multiset.count(entry.getKey());
+      if (actualCount != expectedCount) {
+        differences.add(MultisetCounts.describeCount(entry.getKey(), expectedCount, actualCount));
+      }
+    }
+    if (!differences.isEmpty()) {
+      failWithActual(
+          fact("elements with different counts", differences),
+          fact("expected counts", expectedCounts));
+    }
+  }
 }
@@ -15,6 +15,8 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.truth.Fact.fact;
 import static difflib.DiffUtils.diff;
 import static difflib.DiffUtils.generateUnifiedDiff;
@@ -22,7 +24,12 @@ import static difflib.DiffUtils.generateUnifiedDiff;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import difflib.Patch;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -46,9 +53,54 @@ final class Platform {
     return clazz.isInstance(instance);
   }
 
+  /**
+   * The maximum number of compiled patterns kept by {@link #compile}. Tests often apply the same
+   * few regexes to many strings, in which case compiling them would dominate. The bound keeps
+   * tests which generate many distinct regexes from holding on to all of them. RE2J patterns are
+   * cached the same way by {@code Re2jSubjects}.
+   */
+  private static final int MAX_CACHED_PATTERNS = 1024;
+
+  private static final LoadingCache<String, Pattern> PATTERNS =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CACHED_PATTERNS)
+          .recordStats()
+          .build(
+              new CacheLoader<String, Pattern>() {
+                @Override
+                public Pattern load(String regex) {
+                  return Pattern.compile(regex);
+                }
+              });
+
+  /** Returns the compiled form of the given regex, which is cached. */
+  private static Pattern compile(String regex) {
+    checkNotNull(regex);
+    try {
+      return PATTERNS.getUnchecked(regex);
+    } catch (UncheckedExecutionException e) {
+      // Usually a PatternSyntaxException, which should propagate as if we'd compiled it ourselves.
+      throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the hit and miss counts of {@link #PATTERNS}, for tests. They aren't public: the cache
+   * is an implementation detail, and the GWT version of this class has no cache to report on.
+   */
+  static CacheStats patternCacheStats() {
+    return PATTERNS.stats();
+  }
+
+  /** Determines if the given subject matches the given regex. */
+  static boolean matches(String actual, String regex) {
+    return compile(regex).matcher(actual).matches();
+  }
+
   /** Determines if the given subject contains a match for the given regex. */
   static boolean containsMatch(String actual, String regex) {
-    return Pattern.compile(regex).matcher(actual).find();
+    return compile(regex).matcher(actual).find();
   }
 
   /**
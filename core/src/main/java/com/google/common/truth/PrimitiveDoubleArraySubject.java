@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.lenientFormat;
 import static com.google.common.truth.Correspondence.tolerance;
 import static com.google.common.truth.DoubleSubject.checkTolerance;
+import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.Fact.simpleFact;
 import static com.google.common.truth.MathUtil.equalWithinTolerance;
 import static com.google.common.truth.MathUtil.notEqualWithinTolerance;
@@ -254,6 +255,89 @@ public final class PrimitiveDoubleArraySubject
     };
   }
 
+  /**
+   * Prepares for a check that the mean of the array's values is a finite number within {@code
+   * tolerance} of an expected value that will be provided in the next call in the fluent chain.
+   * Fails if the array is empty.
+   *
+   * <p>This and the other statistics assertions compute what they need in a single pass over the
+   * array, using compensated summation, without copying or boxing its values.
+   */
+  public DoubleSubject.TolerantDoubleComparison hasMeanWithin(double tolerance) {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "mean()", statistics.mean()).isWithin(tolerance);
+  }
+
+  /**
+   * Prepares for a check that the population standard deviation of the array's values (the square
+   * root of their mean squared difference from their mean) is a finite number within {@code
+   * tolerance} of an expected value that will be provided in the next call in the fluent chain.
+   * Fails if the array is empty.
+   */
+  public DoubleSubject.TolerantDoubleComparison hasStandardDeviationWithin(double tolerance) {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "standardDeviation()", statistics.standardDeviation())
+        .isWithin(tolerance);
+  }
+
+  /**
+   * Returns a subject for the smallest of the array's values, which is NaN if any of them are.
+   * Fails if the array is empty.
+   */
+  public DoubleSubject hasMinThat() {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "min()", statistics.min());
+  }
+
+  /**
+   * Returns a subject for the largest of the array's values, which is NaN if any of them are. Fails
+   * if the array is empty.
+   */
+  public DoubleSubject hasMaxThat() {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "max()", statistics.max());
+  }
+
+  /** Fails if any of the array's values is NaN. */
+  public void hasNoNaNs() {
+    long nanCount = statistics().nanCount();
+    if (nanCount > 0) {
+      failWithActual(simpleFact("expected to contain no NaNs"), fact("number of NaNs", nanCount));
+    }
+  }
+
+  /**
+   * Returns a subject for the {@code p}th percentile of the array's values, where {@code p} is
+   * between 0 and 100: the value at index {@code round(p / 100 * (length - 1))} of the values
+   * sorted as by {@link Arrays#sort(double[])}, which puts NaN last. So {@code percentile(0)} is
+   * the smallest value, {@code percentile(100)} the largest and {@code percentile(50)} a median.
+   * Fails if the array is empty.
+   *
+   * <p>The value is found by selection on a copy of the array, which takes time linear in its
+   * length rather than the time to sort it.
+   */
+  public DoubleSubject percentile(double p) {
+    double[] values = checkNotNull(actual());
+    int index = Selection.percentileIndex(p, values.length);
+    if (values.length == 0) {
+      failWithActual(simpleFact("expected not to be empty"));
+      return ignoreCheck().that(0.0);
+    }
+    return check("percentile(%s)", p).that(Selection.select(values.clone(), index));
+  }
+
+  private DoubleStatistics statistics() {
+    return DoubleStatistics.of(checkNotNull(actual()));
+  }
+
+  private DoubleSubject statistic(DoubleStatistics statistics, String name, double value) {
+    if (statistics.count() == 0) {
+      failWithActual(simpleFact("expected not to be empty"));
+      return ignoreCheck().that(value);
+    }
+    return check(name).that(value);
+  }
+
   /**
    * Starts a method chain for a check in which the actual values (i.e. the elements of the array
    * under test) are compared to expected elements using a {@link Correspondence} which considers
@@ -279,7 +363,7 @@ public final class PrimitiveDoubleArraySubject
    *     Double#NaN}, {@link Double#POSITIVE_INFINITY}, or negative, including {@code -0.0}
    */
   public DoubleArrayAsIterable usingTolerance(double tolerance) {
-    return new DoubleArrayAsIterable(tolerance(tolerance), iterableSubject());
+    return new DoubleArrayAsIterable(tolerance(tolerance), iterableSubject(), actual());
   }
 
   private static final Correspondence<Double, Number> EXACT_EQUALITY_CORRESPONDENCE =
@@ -367,14 +451,43 @@ public final class PrimitiveDoubleArraySubject
   public static final class DoubleArrayAsIterable
       extends IterableSubject.UsingCorrespondence<Double, Number> {
 
+    private final IterableSubject subject;
+    private final Correspondence<?, ?> correspondence;
+    // For usingTolerance(), the actual values, so that the arrays can be compared directly. Null
+    // otherwise.
+    @NullableDecl private final double[] actual;
+
     DoubleArrayAsIterable(
         Correspondence<? super Double, Number> correspondence, IterableSubject subject) {
+      this(correspondence, subject, null);
+    }
+
+    DoubleArrayAsIterable(
+        Correspondence<? super Double, Number> correspondence,
+        IterableSubject subject,
+        @NullableDecl double[] actual) {
       super(subject, correspondence);
+      this.subject = subject;
+      this.correspondence = correspondence;
+      this.actual = actual;
     }
 
-    /** As {@link #containsAllOf(Object, Object, Object...)} but taking a primitive double array. */
+    /**
+     * As {@link #containsAllOf(Object, Object, Object...)} but taking a primitive double array.
+     *
+     * <p>With {@link PrimitiveDoubleArraySubject#usingTolerance}, the arrays are compared without
+     * boxing their elements, and in any order by sorting them, as for {@link #containsExactly}.
+     */
     @CanIgnoreReturnValue
     public Ordered containsAllOf(double[] expected) {
+      if (actual != null && correspondence instanceof Correspondence.TolerantNumericEquality) {
+        Ordered result =
+            ToleranceMatching.containsAll(
+                subject, correspondence, actual, expected, tolerance());
+        if (result != null) {
+          return result;
+        }
+      }
       return containsAllIn(Doubles.asList(expected));
     }
 
@@ -383,12 +496,30 @@ public final class PrimitiveDoubleArraySubject
       containsAnyIn(Doubles.asList(expected));
     }
 
-    /** As {@link #containsExactly(Object...)} but taking a primitive double array. */
+    /**
+     * As {@link #containsExactly(Object...)} but taking a primitive double array.
+     *
+     * <p>With {@link PrimitiveDoubleArraySubject#usingTolerance}, the arrays are compared without
+     * boxing their elements, and in any order by sorting them, so this is suitable for very large
+     * arrays. Failures for large arrays are summarized rather than described element by element.
+     */
     @CanIgnoreReturnValue
     public Ordered containsExactly(double[] expected) {
+      if (actual != null && correspondence instanceof Correspondence.TolerantNumericEquality) {
+        Ordered result =
+            ToleranceMatching.containsExactly(
+                subject, correspondence, actual, expected, tolerance());
+        if (result != null) {
+          return result;
+        }
+      }
       return containsExactlyElementsIn(Doubles.asList(expected));
     }
 
+    private double tolerance() {
+      return ((Correspondence.TolerantNumericEquality) correspondence).tolerance();
+    }
+
     /**
      * As {@link #containsNoneOf(Object, Object, Object...)} but taking a primitive double array.
      */
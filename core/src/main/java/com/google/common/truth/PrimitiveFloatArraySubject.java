@@ -278,7 +278,7 @@ public final class PrimitiveFloatArraySubject
    *     Float#NaN}, {@link Float#POSITIVE_INFINITY}, or negative, including {@code -0.0f}
    */
   public FloatArrayAsIterable usingTolerance(double tolerance) {
-    return new FloatArrayAsIterable(tolerance(tolerance), iterableSubject());
+    return new FloatArrayAsIterable(tolerance(tolerance), iterableSubject(), actual());
   }
 
   private static final Correspondence<Float, Number> EXACT_EQUALITY_CORRESPONDENCE =
@@ -373,14 +373,43 @@ public final class PrimitiveFloatArraySubject
   public static final class FloatArrayAsIterable
       extends IterableSubject.UsingCorrespondence<Float, Number> {
 
+    private final IterableSubject subject;
+    private final Correspondence<?, ?> correspondence;
+    // For usingTolerance(), the actual values, so that the arrays can be compared directly. Null
+    // otherwise.
+    @NullableDecl private final float[] actual;
+
     FloatArrayAsIterable(
         Correspondence<? super Float, Number> correspondence, IterableSubject subject) {
+      this(correspondence, subject, null);
+    }
+
+    FloatArrayAsIterable(
+        Correspondence<? super Float, Number> correspondence,
+        IterableSubject subject,
+        @NullableDecl float[] actual) {
       super(subject, correspondence);
+      this.subject = subject;
+      this.correspondence = correspondence;
+      this.actual = actual;
     }
 
-    /** As {@link #containsAllOf(Object, Object, Object...)} but taking a primitive float array. */
+    /**
+     * As {@link #containsAllOf(Object, Object, Object...)} but taking a primitive float array.
+     *
+     * <p>With {@link PrimitiveFloatArraySubject#usingTolerance}, the arrays are compared without
+     * boxing their elements, and in any order by sorting them, as for {@link #containsExactly}.
+     */
     @CanIgnoreReturnValue
     public Ordered containsAllOf(float[] expected) {
+      if (actual != null && correspondence instanceof Correspondence.TolerantNumericEquality) {
+        Ordered result =
+            ToleranceMatching.containsAll(
+                subject, correspondence, toDoubles(actual), toDoubles(expected), tolerance());
+        if (result != null) {
+          return result;
+        }
+      }
       return containsAllIn(Floats.asList(expected));
     }
 
@@ -389,18 +418,44 @@ public final class PrimitiveFloatArraySubject
       containsAnyIn(Floats.asList(expected));
     }
 
-    /** As {@link #containsExactly(Object...)} but taking a primitive float array. */
+    /**
+     * As {@link #containsExactly(Object...)} but taking a primitive float array.
+     *
+     * <p>With {@link PrimitiveFloatArraySubject#usingTolerance}, the arrays are compared without
+     * boxing their elements, and in any order by sorting them, so this is suitable for very large
+     * arrays. Failures for large arrays are summarized rather than described element by element.
+     */
     @CanIgnoreReturnValue
     public Ordered containsExactly(float[] expected) {
+      if (actual != null && correspondence instanceof Correspondence.TolerantNumericEquality) {
+        Ordered result =
+            ToleranceMatching.containsExactly(
+                subject, correspondence, toDoubles(actual), toDoubles(expected), tolerance());
+        if (result != null) {
+          return result;
+        }
+      }
       return containsExactlyElementsIn(Floats.asList(expected));
     }
 
+    private double tolerance() {
+      return ((Correspondence.TolerantNumericEquality) correspondence).tolerance();
+    }
+
     /** As {@link #containsNoneOf(Object, Object, Object...)} but taking a primitive float array. */
     public void containsNoneOf(float[] excluded) {
       containsNoneIn(Floats.asList(excluded));
     }
   }
 
+  private static double[] toDoubles(float[] values) {
+    double[] doubles = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      doubles[i] = values[i];
+    }
+    return doubles;
+  }
+
   private IterableSubject iterableSubject() {
     return checkNoNeedToDisplayBothValues("asList()")
         .about(iterablesWithCustomFloatToString())
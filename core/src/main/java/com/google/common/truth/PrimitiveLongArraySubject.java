@@ -15,6 +15,9 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.simpleFact;
+
 import com.google.common.primitives.Longs;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
@@ -33,4 +36,27 @@ public final class PrimitiveLongArraySubject
   public IterableSubject asList() {
     return checkNoNeedToDisplayBothValues("asList()").that(Longs.asList(actual()));
   }
+
+  /**
+   * Returns a subject for the {@code p}th percentile of the array's values, where {@code p} is
+   * between 0 and 100: the value at index {@code round(p / 100 * (length - 1))} of the sorted
+   * values. So {@code percentile(0)} is the smallest value, {@code percentile(100)} the largest and
+   * {@code percentile(50)} a median. Fails if the array is empty.
+   *
+   * <p>The value is found by selection on a copy of the array, which takes time linear in its
+   * length rather than the time to sort it. For example:
+   *
+   * <pre>{@code
+   * assertThat(latenciesMicros).percentile(99.9).isAtMost(5_000L);
+   * }</pre>
+   */
+  public LongSubject percentile(double p) {
+    long[] values = checkNotNull(actual());
+    int index = Selection.percentileIndex(p, values.length);
+    if (values.length == 0) {
+      failWithActual(simpleFact("expected not to be empty"));
+      return ignoreCheck().that(0L);
+    }
+    return check("percentile(%s)", p).that(Selection.select(values.clone(), index));
+  }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Determines which of several regexes have a match in a string, for the multi-pattern assertions
+ * of {@link StringSubject}.
+ *
+ * <p>Regexes which are plain literals, or quoted with {@code Pattern.quote}, are all found with a
+ * single pass of an Aho-Corasick automaton over the string. Other regexes are each searched for
+ * separately.
+ */
+final class RegexSearch {
+  private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+  /** Returns the regexes which have a match in {@code actual}, in their original order. */
+  static ImmutableSet<String> regexesWithMatches(String actual, Iterable<String> regexes) {
+    Map<String, String> literalsByRegex = new LinkedHashMap<>();
+    Set<String> matched = new LinkedHashSet<>();
+    for (String regex : regexes) {
+      @NullableDecl String literal = literal(regex);
+      if (literal != null) {
+        literalsByRegex.put(regex, literal);
+      } else if (Platform.containsMatch(actual, regex)) {
+        matched.add(regex);
+      }
+    }
+
+    if (!literalsByRegex.isEmpty()) {
+      Set<String> foundLiterals = findLiterals(actual, literalsByRegex.values());
+      for (Map.Entry<String, String> entry : literalsByRegex.entrySet()) {
+        if (foundLiterals.contains(entry.getValue())) {
+          matched.add(entry.getKey());
+        }
+      }
+    }
+
+    // Restore the original order, since literals were handled separately.
+    ImmutableSet.Builder<String> result = ImmutableSet.builder();
+    for (String regex : regexes) {
+      if (matched.contains(regex)) {
+        result.add(regex);
+      }
+    }
+    return result.build();
+  }
+
+  /**
+   * Returns the string which {@code regex} matches literally, or null if it contains any
+   * metacharacters.
+   */
+  @NullableDecl
+  private static String literal(String regex) {
+    if (regex.startsWith("\\Q")
+        && regex.endsWith("\\E")
+        && regex.indexOf("\\E") == regex.length() - 2) {
+      return regex.substring(2, regex.length() - 2);
+    }
+    for (int i = 0; i < regex.length(); i++) {
+      if (METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+        return null;
+      }
+    }
+    return regex;
+  }
+
+  /** Returns the literals which occur in {@code actual}. */
+  private static Set<String> findLiterals(String actual, Iterable<String> literals) {
+    // Build a trie of the literals. Node 0 is the root.
+    List<Map<Character, Integer>> transitions = new ArrayList<>();
+    List<List<String>> outputs = new ArrayList<>();
+    transitions.add(new HashMap<Character, Integer>());
+    outputs.add(new ArrayList<String>());
+    Set<String> remaining = new LinkedHashSet<>();
+    for (String literal : literals) {
+      if (!remaining.add(literal)) {
+        continue;
+      }
+      int node = 0;
+      for (int i = 0; i < literal.length(); i++) {
+        Integer next = transitions.get(node).get(literal.charAt(i));
+        if (next == null) {
+          next = transitions.size();
+          transitions.add(new HashMap<Character, Integer>());
+          outputs.add(new ArrayList<String>());
+          transitions.get(node).put(literal.charAt(i), next);
+        }
+        node = next;
+      }
+      outputs.get(node).add(literal);
+    }
+
+    // Link each node to the longest proper suffix of its path which is also in the trie, and
+    // inherit that node's outputs, visiting nodes in breadth-first order. The root's children all
+    // link to the root.
+    int[] failure = new int[transitions.size()];
+    Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+    while (!queue.isEmpty()) {
+      int node = queue.remove();
+      for (Map.Entry<Character, Integer> transition : transitions.get(node).entrySet()) {
+        int child = transition.getValue();
+        failure[child] = step(transitions, failure, failure[node], transition.getKey());
+        outputs.get(child).addAll(outputs.get(failure[child]));
+        queue.add(child);
+      }
+    }
+
+    Set<String> found = new LinkedHashSet<>();
+    if (remaining.remove("")) {
+      found.add("");
+    }
+    int node = 0;
+    for (int i = 0; i < actual.length() && !remaining.isEmpty(); i++) {
+      node = step(transitions, failure, node, actual.charAt(i));
+      for (String literal : outputs.get(node)) {
+        if (remaining.remove(literal)) {
+          found.add(literal);
+        }
+      }
+    }
+    return found;
+  }
+
+  // Follows the transition for 'c' from 'node', falling back along failure links as needed.
+  private static int step(
+      List<Map<Character, Integer>> transitions, int[] failure, int node, char c) {
+    while (true) {
+      Integer next = transitions.get(node).get(c);
+      if (next != null) {
+        return next;
+      } else if (node == 0) {
+        return 0;
+      }
+      node = failure[node];
+    }
+  }
+
+  private RegexSearch() {}
+}
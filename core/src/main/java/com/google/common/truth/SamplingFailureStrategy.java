@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link FailureStrategy} for checking invariants in code paths where checking every time would
+ * be too expensive, and where a failure might recur often enough to flood whatever the failures
+ * are reported to.
+ *
+ * <p>Checks are sampled: call {@link #sample} before each one, and make it only if that returns
+ * true, so that skipped checks don't even create their subjects. Failures are passed on to another
+ * {@code FailureStrategy}, such as one which logs them, at most once per interval for each call
+ * site. For example:
+ *
+ * <pre>{@code
+ * static final SamplingFailureStrategy INVARIANTS =
+ *     SamplingFailureStrategy.builder(LOG_FAILURE)
+ *         .sampleOneIn(100)
+ *         .reportEachCallSiteAtMostEvery(1, MINUTES)
+ *         .build();
+ * static final StandardSubjectBuilder CHECK =
+ *     StandardSubjectBuilder.forCustomFailureStrategy(INVARIANTS);
+ *
+ * if (INVARIANTS.sample()) {
+ *   CHECK.that(response.getStatus()).isEqualTo(OK);
+ * }
+ * }</pre>
+ *
+ * <p>The call site of a failure is the frame of its stack trace which called into Truth, which
+ * is the top frame unless stack trace cleaning is disabled. The numbers of checks and failures are
+ * available from methods like {@link #checkedCount}, for exporting as metrics.
+ *
+ * <p>Instances are safe to use from multiple threads.
+ */
+@GwtIncompatible("java.util.concurrent")
+public final class SamplingFailureStrategy implements FailureStrategy {
+
+  /** Returns a builder for a strategy which passes failures on to {@code delegate}. */
+  public static Builder builder(FailureStrategy delegate) {
+    return new Builder(delegate);
+  }
+
+  /** A builder for {@link SamplingFailureStrategy} instances. */
+  public static final class Builder {
+    private final FailureStrategy delegate;
+    private int sampleOneIn = 1;
+    private long sampleIntervalNanos;
+    private long reportIntervalNanos;
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Builder(FailureStrategy delegate) {
+      this.delegate = checkNotNull(delegate);
+    }
+
+    /** Samples one check in every {@code n}. The default is to sample every check. */
+    public Builder sampleOneIn(int n) {
+      checkArgument(n > 0, "n (%s) must be > 0", n);
+      this.sampleOneIn = n;
+      return this;
+    }
+
+    /**
+     * Samples a check only if at least {@code interval} has passed since the last sampled check.
+     * If {@link #sampleOneIn} is also set, a check must satisfy both to be sampled.
+     */
+    public Builder sampleAtMostEvery(long interval, TimeUnit unit) {
+      checkArgument(interval >= 0, "interval (%s) must be >= 0", interval);
+      this.sampleIntervalNanos = unit.toNanos(interval);
+      return this;
+    }
+
+    /**
+     * Passes on a failure only if at least {@code interval} has passed since the last failure from
+     * the same call site was passed on. The default is to pass on every failure.
+     */
+    public Builder reportEachCallSiteAtMostEvery(long interval, TimeUnit unit) {
+      checkArgument(interval >= 0, "interval (%s) must be >= 0", interval);
+      this.reportIntervalNanos = unit.toNanos(interval);
+      return this;
+    }
+
+    @VisibleForTesting
+    Builder ticker(Ticker ticker) {
+      this.ticker = checkNotNull(ticker);
+      return this;
+    }
+
+    public SamplingFailureStrategy build() {
+      return new SamplingFailureStrategy(this);
+    }
+  }
+
+  private final FailureStrategy delegate;
+  private final int sampleOneIn;
+  private final long sampleIntervalNanos;
+  private final long reportIntervalNanos;
+  private final Ticker ticker;
+
+  private final AtomicLong checked = new AtomicLong();
+  private final AtomicLong skipped = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong reportedFailures = new AtomicLong();
+
+  /** The number of calls to {@link #sample}, for sampling one in {@link #sampleOneIn}. */
+  private final AtomicLong sampleCalls = new AtomicLong();
+
+  /** The earliest time, per the ticker, at which the next check may be sampled. */
+  private final AtomicLong nextSampleNanos;
+
+  /** The earliest time at which the next failure from each call site may be passed on. */
+  private final ConcurrentMap<StackTraceElement, AtomicLong> nextReportNanosByCallSite =
+      new ConcurrentHashMap<>();
+
+  private SamplingFailureStrategy(Builder builder) {
+    this.delegate = builder.delegate;
+    this.sampleOneIn = builder.sampleOneIn;
+    this.sampleIntervalNanos = builder.sampleIntervalNanos;
+    this.reportIntervalNanos = builder.reportIntervalNanos;
+    this.ticker = builder.ticker;
+    this.nextSampleNanos = new AtomicLong(ticker.read());
+  }
+
+  /**
+   * Returns whether the caller should make its check this time, and counts the check as either
+   * checked or skipped.
+   */
+  public boolean sample() {
+    boolean sampled =
+        sampleCalls.getAndIncrement() % sampleOneIn == 0
+            && (sampleIntervalNanos == 0 || claimInterval(nextSampleNanos, sampleIntervalNanos));
+    (sampled ? checked : skipped).incrementAndGet();
+    return sampled;
+  }
+
+  @Override
+  public void fail(AssertionError failure) {
+    failures.incrementAndGet();
+    if (reportIntervalNanos > 0) {
+      StackTraceElement[] stackTrace = failure.getStackTrace();
+      int callSiteIndex = StackTraceCleaner.truthCallerIndex(stackTrace);
+      if (callSiteIndex < stackTrace.length) {
+        StackTraceElement callSite = stackTrace[callSiteIndex];
+        AtomicLong nextReportNanos = nextReportNanosByCallSite.get(callSite);
+        if (nextReportNanos == null) {
+          AtomicLong first = new AtomicLong(ticker.read());
+          nextReportNanos = nextReportNanosByCallSite.putIfAbsent(callSite, first);
+          if (nextReportNanos == null) {
+            nextReportNanos = first;
+          }
+        }
+        if (!claimInterval(nextReportNanos, reportIntervalNanos)) {
+          return;
+        }
+      }
+    }
+    reportedFailures.incrementAndGet();
+    delegate.fail(failure);
+  }
+
+  /**
+   * Returns true, and moves {@code next} an interval past now, if now is at or after {@code next}.
+   * Only one of any concurrent callers succeeds for each interval.
+   */
+  private boolean claimInterval(AtomicLong next, long intervalNanos) {
+    long now = ticker.read();
+    long current = next.get();
+    return now - current >= 0 && next.compareAndSet(current, now + intervalNanos);
+  }
+
+  /** Returns the number of calls to {@link #sample} which returned true. */
+  public long checkedCount() {
+    return checked.get();
+  }
+
+  /** Returns the number of calls to {@link #sample} which returned false. */
+  public long skippedCount() {
+    return skipped.get();
+  }
+
+  /** Returns the number of failures, whether or not they were passed on. */
+  public long failureCount() {
+    return failures.get();
+  }
+
+  /** Returns the number of failures which were passed on to the delegate strategy. */
+  public long reportedFailureCount() {
+    return reportedFailures.get();
+  }
+}
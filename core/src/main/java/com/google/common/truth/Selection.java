@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+
+/**
+ * Finds percentiles of primitive arrays by selection rather than by sorting, for the {@code
+ * percentile} checks of {@link PrimitiveLongArraySubject} and {@link PrimitiveDoubleArraySubject}.
+ *
+ * <p>Selection is introselect: quickselect with a median-of-three pivot and a three-way partition,
+ * so that arrays with many equal values, as samples of latencies often have, partition evenly. If
+ * the partitions still shrink too slowly, the remaining range is sorted instead, so the worst case
+ * is that of sorting rather than quadratic.
+ */
+final class Selection {
+  /** The length below which sorting a range is faster than partitioning it. */
+  private static final int SORT_THRESHOLD = 16;
+
+  /**
+   * Returns the index, in the sorted order of an array of {@code length} values, of the value
+   * which {@code percentile(p)} checks: the one whose rank is nearest to {@code p} percent of the
+   * way from the smallest to the largest.
+   */
+  static int percentileIndex(double p, int length) {
+    checkArgument(p >= 0 && p <= 100, "p (%s) must be between 0 and 100", p);
+    return (int) Math.round(p / 100 * (length - 1));
+  }
+
+  /**
+   * Returns the value which would be at index {@code k} if {@code values} were sorted, reordering
+   * {@code values} in the process.
+   */
+  static long select(long[] values, int k) {
+    checkElementIndex(k, values.length);
+    int from = 0;
+    int to = values.length - 1;
+    int partitionsLeft = maxPartitions(values.length);
+    while (to - from >= SORT_THRESHOLD && partitionsLeft-- > 0) {
+      long pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to]);
+      int lessEnd = from;
+      int greaterStart = to + 1;
+      int i = from;
+      // [from, lessEnd) are < pivot, [lessEnd, i) are == pivot, [greaterStart, to] are > pivot
+      while (i < greaterStart) {
+        if (values[i] < pivot) {
+          swap(values, lessEnd++, i++);
+        } else if (values[i] > pivot) {
+          swap(values, i, --greaterStart);
+        } else {
+          i++;
+        }
+      }
+      if (k < lessEnd) {
+        to = lessEnd - 1;
+      } else if (k >= greaterStart) {
+        from = greaterStart;
+      } else {
+        return pivot;
+      }
+    }
+    Arrays.sort(values, from, to + 1);
+    return values[k];
+  }
+
+  /**
+   * Returns the value which would be at index {@code k} if {@code values} were sorted by {@link
+   * Arrays#sort(double[])}, which orders {@code -0.0} before {@code 0.0} and NaN after everything
+   * else, reordering {@code values} in the process.
+   */
+  static double select(double[] values, int k) {
+    checkElementIndex(k, values.length);
+    int from = 0;
+    int to = values.length - 1;
+    int partitionsLeft = maxPartitions(values.length);
+    while (to - from >= SORT_THRESHOLD && partitionsLeft-- > 0) {
+      double pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to]);
+      int lessEnd = from;
+      int greaterStart = to + 1;
+      int i = from;
+      while (i < greaterStart) {
+        int comparison = Double.compare(values[i], pivot);
+        if (comparison < 0) {
+          swap(values, lessEnd++, i++);
+        } else if (comparison > 0) {
+          swap(values, i, --greaterStart);
+        } else {
+          i++;
+        }
+      }
+      if (k < lessEnd) {
+        to = lessEnd - 1;
+      } else if (k >= greaterStart) {
+        from = greaterStart;
+      } else {
+        return pivot;
+      }
+    }
+    Arrays.sort(values, from, to + 1);
+    return values[k];
+  }
+
+  /** Returns twice the number of partitions which would halve an array of {@code length}. */
+  private static int maxPartitions(int length) {
+    return 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(length));
+  }
+
+  private static long medianOfThree(long a, long b, long c) {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+
+  private static double medianOfThree(double a, double b, double c) {
+    if (Double.compare(a, b) > 0) {
+      double swap = a;
+      a = b;
+      b = swap;
+    }
+    // Now a <= b, so the median is b if c is larger, else the larger of a and c.
+    if (Double.compare(b, c) <= 0) {
+      return b;
+    }
+    return Double.compare(a, c) >= 0 ? a : c;
+  }
+
+  private static void swap(long[] values, int i, int j) {
+    long value = values[i];
+    values[i] = values[j];
+    values[j] = value;
+  }
+
+  private static void swap(double[] values, int i, int j) {
+    double value = values[i];
+    values[i] = values[j];
+    values[j] = value;
+  }
+
+  private Selection() {}
+}
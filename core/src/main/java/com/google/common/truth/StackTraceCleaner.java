@@ -76,11 +76,7 @@ final class StackTraceCleaner {
 
     StackTraceElement[] stackFrames = throwable.getStackTrace();
 
-    int stackIndex = stackFrames.length - 1;
-    for (; stackIndex >= 0 && !isTruthEntrance(stackFrames[stackIndex]); stackIndex--) {
-      // Find first frame that enters Truth's world, and remove all above.
-    }
-    stackIndex += 1;
+    int stackIndex = truthCallerIndex(stackFrames);
 
     int endIndex = 0;
     for (;
@@ -188,6 +184,19 @@ final class StackTraceCleaner {
   private static final ImmutableSet<Class<?>> STANDARD_SUBJECT_BUILDER_CLASS =
       ImmutableSet.<Class<?>>of(StandardSubjectBuilder.class);
 
+  /**
+   * Returns the index of the frame which called into Truth, which is the top frame of a cleaned
+   * stack trace: the frame below the first one, from the bottom, which enters Truth's world. Returns
+   * 0 if no frame enters Truth, and {@code stackFrames.length} if the bottom frame does.
+   */
+  static int truthCallerIndex(StackTraceElement[] stackFrames) {
+    int stackIndex = stackFrames.length - 1;
+    for (; stackIndex >= 0 && !isTruthEntrance(stackFrames[stackIndex]); stackIndex--) {
+      // Find first frame that enters Truth's world, and remove all above.
+    }
+    return stackIndex + 1;
+  }
+
   private static boolean isTruthEntrance(StackTraceElement stackTraceElement) {
     return isFromClassOrClassNestedInside(stackTraceElement, SUBJECT_CLASS)
         /*
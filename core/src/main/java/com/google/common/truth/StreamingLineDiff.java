@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth;
+
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+import static difflib.DiffUtils.generateUnifiedDiff;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import difflib.Chunk;
+import difflib.Delta;
+import difflib.DiffUtils;
+import difflib.Patch;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Diffs two sequences of lines without reading either of them fully into memory, producing the
+ * same unified diff as {@link Platform#makeDiff}.
+ *
+ * <p>Lines which are the same in both are skipped as they are read. Once they differ, a window of
+ * at most {@value #WINDOW_SIZE} lines of each is diffed, and reading resumes after the last
+ * difference which is followed by enough common lines that it can't extend beyond the window.
+ */
+@GwtIncompatible
+final class StreamingLineDiff {
+  /** The number of unchanged lines shown around each change, as in {@link Platform#makeDiff}. */
+  private static final int CONTEXT_SIZE = 3;
+
+  /** The maximum number of lines of each input which are diffed at once. */
+  private static final int WINDOW_SIZE = 1000;
+
+  /** The number of lines of diff output after which no more differences are looked for. */
+  private static final int MAX_DIFF_LINES = 1000;
+
+  private static final Pattern HUNK_HEADER =
+      Pattern.compile("@@ -(\\d+),(\\d+) \\+(\\d+),(\\d+) @@");
+
+  /**
+   * Returns facts describing the differences between the lines of {@code expected} and {@code
+   * actual}, or an empty list if they have the same lines. Line terminators are not compared.
+   */
+  static ImmutableList<Fact> diff(BufferedReader expected, BufferedReader actual)
+      throws IOException {
+    LineSource expectedLines = new LineSource(expected);
+    LineSource actualLines = new LineSource(actual);
+    // The most recent lines which both inputs have in common, for the context of the next change.
+    Deque<String> context = new ArrayDeque<>();
+    // The number of lines of each input which precede the current position.
+    long expectedLine = 0;
+    long actualLine = 0;
+    List<String> diff = new ArrayList<>();
+    boolean truncated = false;
+
+    while (true) {
+      while (expectedLines.peek() != null && expectedLines.peek().equals(actualLines.peek())) {
+        context.addLast(expectedLines.next());
+        actualLines.next();
+        expectedLine++;
+        actualLine++;
+        if (context.size() > CONTEXT_SIZE) {
+          context.removeFirst();
+        }
+      }
+      if (expectedLines.peek() == null && actualLines.peek() == null) {
+        break;
+      }
+      if (diff.size() >= MAX_DIFF_LINES) {
+        truncated = true;
+        break;
+      }
+
+      int base = context.size();
+      List<String> expectedWindow = new ArrayList<>(context);
+      List<String> actualWindow = new ArrayList<>(context);
+      expectedLines.readInto(expectedWindow, WINDOW_SIZE);
+      actualLines.readInto(actualWindow, WINDOW_SIZE);
+      boolean atEnd = expectedLines.peek() == null && actualLines.peek() == null;
+      List<Delta<String>> deltas = DiffUtils.diff(expectedWindow, actualWindow).getDeltas();
+
+      int kept = atEnd ? deltas.size() : safeDeltaCount(deltas, expectedWindow, actualWindow);
+      if (kept == 0) {
+        // A single change spans the whole window, so we can't tell where it ends.
+        kept = deltas.size();
+        truncated = true;
+      }
+      Patch<String> patch = new Patch<>();
+      for (Delta<String> delta : deltas.subList(0, kept)) {
+        patch.addDelta(delta);
+      }
+      List<String> hunks =
+          generateUnifiedDiff("expected", "actual", expectedWindow, patch, CONTEXT_SIZE);
+      for (String line : hunks.subList(2, hunks.size())) { // remove "--- expected," "+++ actual"
+        diff.add(offsetHunkHeader(line, expectedLine - base, actualLine - base));
+      }
+      if (atEnd || truncated) {
+        break;
+      }
+
+      // Everything after the last kept change is read again, starting with the common lines
+      // which follow it.
+      Delta<String> last = deltas.get(kept - 1);
+      int expectedResume = end(last.getOriginal());
+      int actualResume = end(last.getRevised());
+      expectedLines.unread(expectedWindow.subList(expectedResume, expectedWindow.size()));
+      actualLines.unread(actualWindow.subList(actualResume, actualWindow.size()));
+      expectedLine += expectedResume - base;
+      actualLine += actualResume - base;
+      context.clear();
+    }
+
+    if (diff.isEmpty()) {
+      return ImmutableList.of();
+    }
+    Fact diffFact = fact("diff", Joiner.on("\n").join(diff));
+    return truncated
+        ? ImmutableList.of(diffFact, simpleFact("(diff truncated)"))
+        : ImmutableList.of(diffFact);
+  }
+
+  /**
+   * Returns the number of leading deltas which are known to be complete: those up to the last one
+   * followed by more common lines than the context of two hunks, before the next delta or the end
+   * of the window.
+   */
+  private static int safeDeltaCount(
+      List<Delta<String>> deltas, List<String> expectedWindow, List<String> actualWindow) {
+    for (int i = deltas.size() - 1; i >= 0; i--) {
+      Delta<String> delta = deltas.get(i);
+      int commonLines =
+          i + 1 < deltas.size()
+              ? deltas.get(i + 1).getOriginal().getPosition() - end(delta.getOriginal())
+              : Math.min(
+                  expectedWindow.size() - end(delta.getOriginal()),
+                  actualWindow.size() - end(delta.getRevised()));
+      if (commonLines > 2 * CONTEXT_SIZE) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+
+  private static int end(Chunk<String> chunk) {
+    return chunk.getPosition() + chunk.size();
+  }
+
+  /** Shifts the line numbers in a hunk header by the given offsets. Other lines are unchanged. */
+  private static String offsetHunkHeader(String line, long expectedOffset, long actualOffset) {
+    Matcher matcher = HUNK_HEADER.matcher(line);
+    if (!matcher.matches()) {
+      return line;
+    }
+    return "@@ -"
+        + (Long.parseLong(matcher.group(1)) + expectedOffset)
+        + ","
+        + matcher.group(2)
+        + " +"
+        + (Long.parseLong(matcher.group(3)) + actualOffset)
+        + ","
+        + matcher.group(4)
+        + " @@";
+  }
+
+  /** The lines of a reader, with support for reading some of them again. */
+  private static final class LineSource {
+    private final BufferedReader reader;
+    private final Deque<String> pending = new ArrayDeque<>();
+
+    LineSource(BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    @NullableDecl
+    String peek() throws IOException {
+      if (pending.isEmpty()) {
+        String line = reader.readLine();
+        if (line == null) {
+          return null;
+        }
+        pending.add(line);
+      }
+      return pending.peekFirst();
+    }
+
+    @NullableDecl
+    String next() throws IOException {
+      String line = peek();
+      pending.pollFirst();
+      return line;
+    }
+
+    void readInto(List<String> lines, int count) throws IOException {
+      for (int i = 0; i < count && peek() != null; i++) {
+        lines.add(next());
+      }
+    }
+
+    void unread(List<String> lines) {
+      for (int i = lines.size() - 1; i >= 0; i--) {
+        pending.addFirst(lines.get(i));
+      }
+    }
+  }
+
+  private StreamingLineDiff() {}
+}
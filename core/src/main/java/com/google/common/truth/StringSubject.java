@@ -21,6 +21,10 @@ import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.Fact.simpleFact;
 
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.Lists;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
@@ -117,7 +121,7 @@ public class StringSubject extends ComparableSubject<StringSubject, String> {
 
   /** Fails if the string does not match the given regex. */
   public void matches(String regex) {
-    if (!actual().matches(regex)) {
+    if (!Platform.matches(actual(), regex)) {
       failWithActual("expected to match", regex);
     }
   }
@@ -132,7 +136,7 @@ public class StringSubject extends ComparableSubject<StringSubject, String> {
 
   /** Fails if the string matches the given regex. */
   public void doesNotMatch(String regex) {
-    if (actual().matches(regex)) {
+    if (Platform.matches(actual(), regex)) {
       failWithActual("expected not to match", regex);
     }
   }
@@ -179,6 +183,59 @@ public class StringSubject extends ComparableSubject<StringSubject, String> {
     }
   }
 
+  /**
+   * Fails unless the string contains a match for each of the given regexes, reporting those which
+   * have none.
+   *
+   * <p>Regexes which are plain literals, or quoted with {@code Pattern.quote}, are all searched for
+   * in a single pass over the string, so prefer those when checking a long string for many
+   * substrings.
+   */
+  public void containsAllMatchesOf(String firstRegex, String... restOfRegexes) {
+    List<String> regexes = Lists.asList(firstRegex, restOfRegexes);
+    checkNoNulls(regexes);
+    if (actual() == null) {
+      failWithActual("expected a string that contains matches for all of", regexes);
+      return;
+    }
+    Set<String> withMatches = RegexSearch.regexesWithMatches(actual(), regexes);
+    if (withMatches.size() < regexes.size()) {
+      Set<String> missing = new LinkedHashSet<>(regexes);
+      missing.removeAll(withMatches);
+      failWithActual(
+          fact("expected to contain matches for all of", regexes),
+          fact("but contained no match for", missing));
+    }
+  }
+
+  /**
+   * Fails if the string contains a match for any of the given regexes, reporting those which do.
+   *
+   * <p>Regexes which are plain literals, or quoted with {@code Pattern.quote}, are all searched for
+   * in a single pass over the string, so prefer those when checking a long string for many
+   * substrings.
+   */
+  public void containsNoMatchesOf(String firstRegex, String... restOfRegexes) {
+    List<String> regexes = Lists.asList(firstRegex, restOfRegexes);
+    checkNoNulls(regexes);
+    if (actual() == null) {
+      failWithActual("expected a string that contains no matches for any of", regexes);
+      return;
+    }
+    Set<String> withMatches = RegexSearch.regexesWithMatches(actual(), regexes);
+    if (!withMatches.isEmpty()) {
+      failWithActual(
+          fact("expected not to contain a match for any of", regexes),
+          fact("but contained matches for", withMatches));
+    }
+  }
+
+  private static void checkNoNulls(List<String> regexes) {
+    for (String regex : regexes) {
+      checkNotNull(regex);
+    }
+  }
+
   /**
    * Returns a {@link StringSubject}-like instance that will ignore the case of the characters.
    *
@@ -231,17 +231,16 @@ public class Subject<S extends Subject<S, T>, T> {
       return ComparisonResult.differentNoDescription();
     } else if (actual() instanceof byte[] && expected instanceof byte[]) {
       /*
-       * For a special error message and to use faster Arrays.equals to avoid at least one timeout.
-       *
-       * TODO(cpovirk): For performance, use Arrays.equals for other array types (here and/or in
-       * checkArrayEqualsRecursive)? Exception: double[] and float[], whose GWT implementations I
-       * think may have both false positives and false negatives (so we can't even use Arrays.equals
-       * as a fast path for them, nor deepEquals for an Object[] that might contain them). We would
-       * still fall back to the slower checkArrayEqualsRecursive to produce a nicer failure message
-       * -- but naturally only for tests that are about to fail, when performance matters less.
+       * For a special error message. Other primitive arrays are compared without boxing by
+       * checkArrayEqualsRecursive, which uses Arrays.equals for all but double[] and float[], whose
+       * GWT implementations I think may have both false positives and false negatives.
        */
       return checkByteArrayEquals((byte[]) expected, (byte[]) actual());
     } else if (actual().getClass().isArray() && expected.getClass().isArray()) {
+      if (actual().getClass() == expected.getClass()
+          && (isLargePrimitiveArray(actual()) || isLargePrimitiveArray(expected))) {
+        return checkLargePrimitiveArrayEquals(expected, actual());
+      }
       return checkArrayEqualsRecursive(expected, actual, "");
     } else if (isIntegralBoxedPrimitive(actual()) && isIntegralBoxedPrimitive(expected)) {
       return ComparisonResult.fromEqualsResult(integralValue(actual()) == integralValue(expected));
@@ -473,10 +472,15 @@ public class Subject<S extends Subject<S, T>, T> {
 
   // We could add a dep on com.google.common.io, but that seems overkill for base16 encoding
   private static String base16(byte[] bytes) {
-    StringBuilder sb = new StringBuilder(2 * bytes.length);
-    for (byte b : bytes) {
+    int length = Math.min(bytes.length, MAX_FORMATTED_ELEMENTS);
+    StringBuilder sb = new StringBuilder(2 * length + 32);
+    for (int i = 0; i < length; i++) {
+      byte b = bytes[i];
       sb.append(hexDigits[(b >> 4) & 0xf]).append(hexDigits[b & 0xf]);
     }
+    if (length < bytes.length) {
+      sb.append("... (").append(bytes.length).append(" bytes)");
+    }
     return sb.toString();
   }
 
@@ -503,14 +507,21 @@ public class Subject<S extends Subject<S, T>, T> {
             } else if (input.getClass() == byte[].class) {
               iterable = Bytes.asList((byte[]) input);
             } else if (input.getClass() == double[].class) {
-              iterable = doubleArrayAsString((double[]) input);
+              iterable = doubleArrayAsStrings((double[]) input);
             } else if (input.getClass() == float[].class) {
-              iterable = floatArrayAsString((float[]) input);
+              iterable = floatArrayAsStrings((float[]) input);
             } else if (input.getClass() == char[].class) {
               iterable = Chars.asList((char[]) input);
             } else {
               iterable = Arrays.asList((Object[]) input);
             }
+            int length = Array.getLength(input);
+            if (length > MAX_FORMATTED_ELEMENTS) {
+              iterable =
+                  Iterables.concat(
+                      Iterables.limit(iterable, MAX_FORMATTED_ELEMENTS),
+                      ImmutableList.of("... (" + length + " elements)"));
+            }
             return Iterables.transform(iterable, STRINGIFY);
           }
           return input;
@@ -573,15 +584,116 @@ public class Subject<S extends Subject<S, T>, T> {
    * Returns null if the arrays are equal. If not equal, returns a string comparing the two arrays,
    * displaying them in the style "[1, 2, 3]" to supplement the main failure message, which uses the
    * style "010203."
+   *
+   * <p>If either array is too long to display in full, only the elements around the first
+   * difference are displayed.
    */
   private static ComparisonResult checkByteArrayEquals(byte[] expected, byte[] actual) {
-    if (Arrays.equals(expected, actual)) {
+    if (isLargePrimitiveArray(expected) || isLargePrimitiveArray(actual)) {
+      return checkLargePrimitiveArrayEquals(expected, actual);
+    }
+    if (ArrayMismatch.firstMismatch(expected, actual) == -1) {
       return ComparisonResult.equal();
     }
     return ComparisonResult.differentWithDescription(
         fact("expected", Arrays.toString(expected)), fact("but was", Arrays.toString(actual)));
   }
 
+  /**
+   * Returns whether {@code o} is a primitive array too long to be formatted in full. Such arrays
+   * are formatted only up to {@value #MAX_FORMATTED_ELEMENTS} elements, so two of them may format
+   * the same even though they differ.
+   */
+  private static boolean isLargePrimitiveArray(@NullableDecl Object o) {
+    return o != null
+        && o.getClass().isArray()
+        && !(o instanceof Object[])
+        && Array.getLength(o) > MAX_FORMATTED_ELEMENTS;
+  }
+
+  /**
+   * Returns whether {@code o} is an array that is formatted only in part, either because it is too
+   * long or because it contains such an array.
+   */
+  private static boolean isFormattedInPart(@NullableDecl Object o) {
+    if (o == null || !o.getClass().isArray()) {
+      return false;
+    }
+    if (Array.getLength(o) > MAX_FORMATTED_ELEMENTS) {
+      return true;
+    }
+    if (o instanceof Object[]) {
+      for (Object element : (Object[]) o) {
+        if (isFormattedInPart(element)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Compares two primitive arrays of the same type, at least one of which is too long to display
+   * in full. If they are not equal, the result describes the first difference, along with the
+   * elements of each array around it.
+   */
+  private static ComparisonResult checkLargePrimitiveArrayEquals(Object expected, Object actual) {
+    int mismatch = ArrayMismatch.firstMismatch(expected, actual);
+    if (mismatch == -1) {
+      return ComparisonResult.equal();
+    }
+    return describeLargeArrayMismatch(expected, actual, mismatch, "");
+  }
+
+  /**
+   * Describes the first difference between two primitive arrays of the same type, which is at
+   * {@code mismatch}, by the elements of each array around it.
+   */
+  private static ComparisonResult describeLargeArrayMismatch(
+      Object expected, Object actual, int mismatch, String lastIndex) {
+    int from = Math.max(0, mismatch - ARRAY_WINDOW_RADIUS);
+    String fromIndex = lastIndex.isEmpty() ? String.valueOf(from) : lastIndex + "[" + from + "]";
+    Fact differsAt = fact("differs at index", lastIndex + "[" + mismatch + "]");
+    Fact expectedWindow = fact("expected, from index " + fromIndex, arrayWindow(expected, from));
+    Fact actualWindow = fact("but was, from index " + fromIndex, arrayWindow(actual, from));
+    int expectedLength = Array.getLength(expected);
+    int actualLength = Array.getLength(actual);
+    if (expectedLength == actualLength) {
+      return ComparisonResult.differentWithDescription(differsAt, expectedWindow, actualWindow);
+    }
+    return ComparisonResult.differentWithDescription(
+        differsAt,
+        expectedWindow,
+        actualWindow,
+        fact("expected length", expectedLength),
+        fact("but had length", actualLength));
+  }
+
+  private static String arrayWindow(Object array, int from) {
+    int to = Math.min(Array.getLength(array), from + 2 * ARRAY_WINDOW_RADIUS);
+    List<String> elements = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      Object element = Array.get(array, i);
+      if (element instanceof Double) {
+        elements.add(doubleToString((Double) element));
+      } else if (element instanceof Float) {
+        elements.add(floatToString((Float) element));
+      } else {
+        elements.add(String.valueOf(element));
+      }
+    }
+    return elements.toString();
+  }
+
+  /**
+   * The number of elements beyond which arrays are formatted only in part, rather than as
+   * potentially enormous strings.
+   */
+  private static final int MAX_FORMATTED_ELEMENTS = 1024;
+
+  /** The number of elements before the first difference in a large array which are displayed. */
+  private static final int ARRAY_WINDOW_RADIUS = 16;
+
   /**
    * Returns null if the arrays are equal, recursively. If not equal, returns the string of the
    * index at which they're different.
@@ -612,11 +724,23 @@ public class Subject<S extends Subject<S, T>, T> {
       return ComparisonResult.differentWithDescription(
           indexFact, fact("expected", expectedLength), fact("but was", actualLength));
     }
+    int mismatch = ArrayMismatch.firstMismatch(expectedArray, actualArray);
+    if (mismatch == -1) {
+      return ComparisonResult.equal();
+    } else if (mismatch >= 0 && isLargePrimitiveArray(actualArray)) {
+      return describeLargeArrayMismatch(expectedArray, actualArray, mismatch, lastIndex);
+    } else if (mismatch >= 0) {
+      return ComparisonResult.differentWithDescription(
+          fact("differs at index", lastIndex + "[" + mismatch + "]"));
+    }
+    // Not a primitive array, so an Object[], whose elements may be arrays themselves.
+    Object[] expectedElements = (Object[]) expectedArray;
+    Object[] actualElements = (Object[]) actualArray;
     for (int i = 0; i < actualLength || i < expectedLength; i++) {
       String index = lastIndex + "[" + i + "]";
       if (i < expectedLength && i < actualLength) {
-        Object expected = Array.get(expectedArray, i);
-        Object actual = Array.get(actualArray, i);
+        Object expected = expectedElements[i];
+        Object actual = actualElements[i];
         if (actual != null
             && actual.getClass().isArray()
             && expected != null
@@ -667,18 +791,21 @@ public class Subject<S extends Subject<S, T>, T> {
     }
   }
 
-  private static List<String> doubleArrayAsString(double[] items) {
-    List<String> itemAsStrings = new ArrayList<>(items.length);
-    for (double item : items) {
-      itemAsStrings.add(doubleToString(item));
+  // Formats only as many elements as STRINGIFY will display.
+  private static List<String> doubleArrayAsStrings(double[] items) {
+    int length = Math.min(items.length, MAX_FORMATTED_ELEMENTS);
+    List<String> itemAsStrings = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      itemAsStrings.add(doubleToString(items[i]));
     }
     return itemAsStrings;
   }
 
-  private static List<String> floatArrayAsString(float[] items) {
-    List<String> itemAsStrings = new ArrayList<>(items.length);
-    for (float item : items) {
-      itemAsStrings.add(floatToString(item));
+  private static List<String> floatArrayAsStrings(float[] items) {
+    int length = Math.min(items.length, MAX_FORMATTED_ELEMENTS);
+    List<String> itemAsStrings = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      itemAsStrings.add(floatToString(items[i]));
     }
     return itemAsStrings;
   }
@@ -873,6 +1000,16 @@ public class Subject<S extends Subject<S, T>, T> {
      * What we really want here is probably to delete actualCustomStringRepresentation() and migrate
      * users to formatActualOrExpected(actual).
      */
+    if (isFormattedInPart(actual()) || isFormattedInPart(expected)) {
+      // The formatted values are truncated, so they may be the same even though the arrays differ.
+      // Report them only alongside the description of the first difference.
+      failEqualityCheckNoComparisonFailure(
+          difference,
+          fact(equalityCheck.keyForExpected, expectedString),
+          fact("but was", actualString));
+      return;
+    }
+
     boolean sameToStrings = actualString.equals(expectedString);
     boolean sameClassNames = actualClass.equals(expectedClass);
     // TODO(cpovirk): Handle "same class name, different class loader."
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth;
+
+import static com.google.common.truth.DoubleSubject.checkTolerance;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+import static com.google.common.truth.MathUtil.equalWithinTolerance;
+
+import java.util.Arrays;
+import java.util.List;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Implements {@code containsExactly} and {@code containsAllIn} for {@link
+ * Correspondence#tolerance} directly on arrays of double values, rather than through the general
+ * {@link IterableSubject.UsingCorrespondence} algorithm, which compares every actual element with
+ * every expected element. It is used by {@code IterableSubject.UsingCorrespondence} for
+ * collections of numbers and by the {@code usingTolerance} checks of {@link
+ * PrimitiveDoubleArraySubject} and {@link PrimitiveFloatArraySubject}.
+ *
+ * <p>Values within a tolerance of each other can be matched in any order by sorting both arrays
+ * and sweeping through them: since every expected value accepts an interval of the same width,
+ * matching each expected value, from the smallest up, with the smallest unmatched actual value in
+ * its interval matches as many of them as any one-to-one matching can. When the arrays have the
+ * same length, that pairs values of the same rank.
+ */
+final class ToleranceMatching {
+  /**
+   * The length beyond which failures are summarized here, instead of being described element by
+   * element by the general algorithm, which would be too slow and produce an enormous message.
+   */
+  private static final int MAX_DESCRIBED_LENGTH = 1000;
+
+  private static final Ordered IN_ORDER =
+      new Ordered() {
+        @Override
+        public void inOrder() {}
+      };
+
+  /**
+   * Checks that {@code actual} contains values within {@code tolerance} of exactly the values of
+   * {@code expected}. Returns null if the general algorithm should be used instead, because the
+   * check fails and the arrays are small enough to describe in full, or the tolerance is invalid.
+   */
+  @NullableDecl
+  static Ordered containsExactly(
+      final IterableSubject subject,
+      final Correspondence<?, ?> correspondence,
+      @NullableDecl double[] actual,
+      final double[] expected,
+      double tolerance) {
+    if (actual == null || !isValid(tolerance)) {
+      return null;
+    }
+    if (actual.length == expected.length) {
+      final int firstMismatch = firstMismatch(actual, expected, tolerance);
+      if (firstMismatch < 0) {
+        return IN_ORDER;
+      }
+      if (withinInAnyOrder(actual, expected, tolerance)) {
+        if (actual.length <= MAX_DESCRIBED_LENGTH) {
+          return null;
+        }
+        return new Ordered() {
+          @Override
+          public void inOrder() {
+            subject.failWithoutActual(
+                simpleFact("contents match, but order was wrong"),
+                comparingContents(correspondence),
+                fact("first element out of order at index", firstMismatch));
+          }
+        };
+      }
+    }
+    if (Math.max(actual.length, expected.length) <= MAX_DESCRIBED_LENGTH) {
+      return null;
+    }
+    Fact[] summary = summarizeMismatches(correspondence, actual, expected, tolerance);
+    subject.failWithoutActual(summary[0], Arrays.copyOfRange(summary, 1, summary.length));
+    return IN_ORDER;
+  }
+
+  /**
+   * Checks that {@code actual} contains values within {@code tolerance} of all the values of {@code
+   * expected}, each matched with a different actual value. Returns null if the general algorithm
+   * should be used instead, as for {@link #containsExactly}.
+   */
+  @NullableDecl
+  static Ordered containsAll(
+      final IterableSubject subject,
+      final Correspondence<?, ?> correspondence,
+      double[] actual,
+      double[] expected,
+      double tolerance) {
+    if (!isValid(tolerance)) {
+      return null;
+    }
+    final int matchedInOrder = matchedInOrder(actual, expected, tolerance);
+    if (matchedInOrder == expected.length) {
+      return IN_ORDER;
+    }
+    int unmatched = unmatchedInAnyOrder(actual, expected, tolerance);
+    if (Math.max(actual.length, expected.length) <= MAX_DESCRIBED_LENGTH) {
+      return null;
+    }
+    if (unmatched == 0) {
+      return new Ordered() {
+        @Override
+        public void inOrder() {
+          subject.failWithoutActual(
+              simpleFact("required elements were all found, but order was wrong"),
+              comparingContents(correspondence),
+              fact("first required element not found in order, at index", matchedInOrder));
+        }
+      };
+    }
+    subject.failWithoutActual(
+        simpleFact("expected to contain at least the expected values, in any order"),
+        comparingContents(correspondence),
+        fact("expected values without a matching actual value", unmatched),
+        fact("expected length", expected.length),
+        fact("actual length", actual.length));
+    return IN_ORDER;
+  }
+
+  /**
+   * Returns how many of the values of {@code expected}, from the start, are within the tolerance of
+   * values of {@code actual} in the same order, though not necessarily consecutive.
+   */
+  private static int matchedInOrder(double[] actual, double[] expected, double tolerance) {
+    int matched = 0;
+    for (int i = 0; i < actual.length && matched < expected.length; i++) {
+      if (equalWithinTolerance(actual[i], expected[matched], tolerance)) {
+        matched++;
+      }
+    }
+    return matched;
+  }
+
+  /**
+   * Returns how many of the values of {@code expected} can't be matched with different values of
+   * {@code actual} within the tolerance, however the values are matched.
+   */
+  private static int unmatchedInAnyOrder(double[] actual, double[] expected, double tolerance) {
+    return unmatchedInSortedOrder(sorted(actual), sorted(expected), tolerance);
+  }
+
+  /** As {@link #unmatchedInAnyOrder}, for arrays which are already sorted. */
+  private static int unmatchedInSortedOrder(
+      double[] sortedActual, double[] sortedExpected, double tolerance) {
+    int unmatched = 0;
+    int next = 0;
+    for (double value : sortedExpected) {
+      // Actual values too small for this expected value are too small for the later ones, too.
+      while (next < sortedActual.length
+          && sortedActual[next] < value
+          && !equalWithinTolerance(sortedActual[next], value, tolerance)) {
+        next++;
+      }
+      // Non-finite values are never within the tolerance of anything, so they are unmatched.
+      if (next < sortedActual.length
+          && equalWithinTolerance(sortedActual[next], value, tolerance)) {
+        next++;
+      } else {
+        unmatched++;
+      }
+    }
+    return unmatched;
+  }
+
+  private static double[] sorted(double[] values) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  /**
+   * Returns the double values of {@code values}, or null if any of them is not a {@link Number},
+   * so that the general algorithm can handle it.
+   */
+  @NullableDecl
+  static double[] doubleValues(List<?> values) {
+    double[] result = new double[values.size()];
+    int i = 0;
+    for (Object value : values) {
+      if (!(value instanceof Number)) {
+        return null;
+      }
+      result[i++] = ((Number) value).doubleValue();
+    }
+    return result;
+  }
+
+  private static boolean isValid(double tolerance) {
+    try {
+      checkTolerance(tolerance);
+      return true;
+    } catch (IllegalArgumentException e) {
+      // Let the correspondence report it.
+      return false;
+    }
+  }
+
+  /**
+   * Returns the first index at which the values of the arrays, which must have the same length,
+   * are not within the tolerance of each other, or -1 if there is none.
+   */
+  private static int firstMismatch(double[] actual, double[] expected, double tolerance) {
+    for (int i = 0; i < actual.length; i++) {
+      if (!equalWithinTolerance(actual[i], expected[i], tolerance)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean withinInAnyOrder(double[] actual, double[] expected, double tolerance) {
+    // Non-finite values are never within the tolerance of anything, so they fail here too.
+    return firstMismatch(sorted(actual), sorted(expected), tolerance) < 0;
+  }
+
+  /**
+   * Describes how the values of {@code actual} fail to match those of {@code expected} in any
+   * order: how many values of each can't be matched and, if the arrays have the same length, the
+   * largest difference between values of the same rank, which the matching would pair.
+   */
+  private static Fact[] summarizeMismatches(
+      Correspondence<?, ?> correspondence, double[] actual, double[] expected, double tolerance) {
+    double[] sortedActual = sorted(actual);
+    double[] sortedExpected = sorted(expected);
+    int unmatchedExpected = unmatchedInSortedOrder(sortedActual, sortedExpected, tolerance);
+    // Every expected value which is matched is matched with a different actual value.
+    int unmatchedActual = actual.length - (expected.length - unmatchedExpected);
+
+    Fact expectation = simpleFact("expected to contain exactly the expected values, in any order");
+    if (actual.length != expected.length) {
+      return new Fact[] {
+        expectation,
+        comparingContents(correspondence),
+        fact("expected length", expected.length),
+        fact("but had length", actual.length),
+        fact("expected values without a matching actual value", unmatchedExpected),
+        fact("actual values without a matching expected value", unmatchedActual)
+      };
+    }
+
+    int worst = -1;
+    double worstError = -1;
+    for (int i = 0; i < sortedActual.length; i++) {
+      if (!equalWithinTolerance(sortedActual[i], sortedExpected[i], tolerance)) {
+        double error = Math.abs(sortedActual[i] - sortedExpected[i]);
+        if (Double.isNaN(error)) {
+          error = Double.POSITIVE_INFINITY;
+        }
+        if (error > worstError) {
+          worst = i;
+          worstError = error;
+        }
+      }
+    }
+    return new Fact[] {
+      expectation,
+      comparingContents(correspondence),
+      fact("expected values without a matching actual value", unmatchedExpected),
+      fact("actual values without a matching expected value", unmatchedActual),
+      fact(
+          "largest difference between values of the same rank",
+          Math.abs(sortedActual[worst] - sortedExpected[worst])),
+      fact("expected value of that rank", sortedExpected[worst]),
+      fact("actual value of that rank", sortedActual[worst])
+    };
+  }
+
+  private static Fact comparingContents(Correspondence<?, ?> correspondence) {
+    return simpleFact(
+        "comparing contents by testing that each element " + correspondence + " an expected value");
+  }
+
+  private ToleranceMatching() {}
+}
@@ -65,6 +65,11 @@ final class Platform {
     }
   }
 
+  /** Determines if the given subject matches the given regex. */
+  static boolean matches(String subject, String regex) {
+    return subject.matches(regex);
+  }
+
   /** Determines if the given subject contains a match for the given regex. */
   static boolean containsMatch(String subject, String regex) {
     return compile(regex).test(subject);
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.truth.AsyncFailureStrategy.OverflowPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link AsyncFailureStrategy}. */
+@RunWith(JUnit4.class)
+public class AsyncFailureStrategyTest {
+  private final List<AssertionError> reported =
+      Collections.synchronizedList(new ArrayList<AssertionError>());
+  private final List<Thread> reportingThreads =
+      Collections.synchronizedList(new ArrayList<Thread>());
+
+  /** Blocks the delegate until released, so that tests can fill the buffer. */
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private final FailureStrategy blockingRecorder =
+      new FailureStrategy() {
+        @Override
+        public void fail(AssertionError failure) {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+          reportingThreads.add(Thread.currentThread());
+          reported.add(failure);
+        }
+      };
+
+  private AsyncFailureStrategy strategy;
+
+  @After
+  public void closeStrategy() {
+    release.countDown();
+    if (strategy != null) {
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void passesOnFailuresFromBackgroundThread() throws InterruptedException {
+    strategy = AsyncFailureStrategy.create(blockingRecorder, 16, OverflowPolicy.BLOCK);
+    StandardSubjectBuilder check = StandardSubjectBuilder.forCustomFailureStrategy(strategy);
+    check.that(1).isEqualTo(2);
+    check.that("a").isEmpty();
+    release.countDown();
+    assertThat(strategy.awaitDelivery(10, SECONDS)).isTrue();
+
+    assertThat(reported).hasSize(2);
+    assertThat(reported.get(0)).hasMessageThat().contains("expected: 2");
+    assertThat(reported.get(1)).hasMessageThat().contains("expected to be empty");
+    assertThat(reportingThreads).doesNotContain(Thread.currentThread());
+    assertThat(strategy.deliveredCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void cleansStackTracesInBackground() throws InterruptedException {
+    strategy = AsyncFailureStrategy.create(blockingRecorder, 16, OverflowPolicy.BLOCK);
+    StandardSubjectBuilder.forCustomFailureStrategy(strategy).that(1).isEqualTo(2);
+    release.countDown();
+    assertThat(strategy.awaitDelivery(10, SECONDS)).isTrue();
+
+    StackTraceElement top = reported.get(0).getStackTrace()[0];
+    assertThat(top.getClassName()).isEqualTo(AsyncFailureStrategyTest.class.getName());
+    assertThat(top.getMethodName()).isEqualTo("cleansStackTracesInBackground");
+  }
+
+  @Test
+  public void dropPolicyDiscardsOverflow() {
+    strategy = AsyncFailureStrategy.create(blockingRecorder, 1, OverflowPolicy.DROP);
+    StandardSubjectBuilder check = StandardSubjectBuilder.forCustomFailureStrategy(strategy);
+    for (int i = 0; i < 5; i++) {
+      check.that(i).isLessThan(0);
+    }
+    // The background thread holds at most one failure and the buffer one more.
+    assertThat(strategy.droppedCount()).isAtLeast(3L);
+    release.countDown();
+    strategy.close();
+
+    assertThat(reported.size() + strategy.droppedCount()).isEqualTo(5);
+    assertThat(strategy.deliveredCount()).isEqualTo(reported.size());
+  }
+
+  @Test
+  public void countPolicyReportsNumberDropped() {
+    strategy = AsyncFailureStrategy.create(blockingRecorder, 1, OverflowPolicy.COUNT);
+    StandardSubjectBuilder check = StandardSubjectBuilder.forCustomFailureStrategy(strategy);
+    for (int i = 0; i < 5; i++) {
+      check.that(i).isLessThan(0);
+    }
+    long dropped = strategy.droppedCount();
+    assertThat(dropped).isAtLeast(3L);
+    release.countDown();
+    strategy.close();
+
+    assertThat(reported).hasSize((int) (5 - dropped + 1));
+    AssertionError last = reported.get(reported.size() - 1);
+    assertThat(last)
+        .hasMessageThat()
+        .isEqualTo("failures dropped because the buffer was full: " + dropped);
+  }
+
+  @Test
+  public void closePassesOnBufferedFailuresAndLaterOnesDirectly() {
+    strategy = AsyncFailureStrategy.create(blockingRecorder, 16, OverflowPolicy.BLOCK);
+    StandardSubjectBuilder check = StandardSubjectBuilder.forCustomFailureStrategy(strategy);
+    check.that(1).isEqualTo(2);
+    check.that(3).isEqualTo(4);
+    release.countDown();
+    strategy.close();
+    assertThat(reported).hasSize(2);
+
+    check.that(5).isEqualTo(6);
+    assertThat(reported).hasSize(3);
+    assertThat(reportingThreads.get(2)).isSameAs(Thread.currentThread());
+  }
+
+  @Test
+  public void delegateExceptionsDoNotStopDelivery() throws InterruptedException {
+    final List<AssertionError> passedOn = new ArrayList<>();
+    strategy =
+        AsyncFailureStrategy.create(
+            new FailureStrategy() {
+              @Override
+              public void fail(AssertionError failure) {
+                passedOn.add(failure);
+                throw failure;
+              }
+            },
+            16,
+            OverflowPolicy.BLOCK);
+    StandardSubjectBuilder check = StandardSubjectBuilder.forCustomFailureStrategy(strategy);
+    check.that(1).isEqualTo(2);
+    check.that(3).isEqualTo(4);
+    assertThat(strategy.awaitDelivery(10, SECONDS)).isTrue();
+    assertThat(strategy.deliveredCount()).isEqualTo(2);
+  }
+}
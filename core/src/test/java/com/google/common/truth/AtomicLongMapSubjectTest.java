@@ -18,7 +18,10 @@ package com.google.common.truth;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -259,6 +262,97 @@ public final class AtomicLongMapSubjectTest extends BaseSubjectTestCase {
         .isEqualTo("Not true that <{kurt=1}> contains entry <kurt=2>");
   }
 
+  @Test
+  public void containsExactlyEntriesIn() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("kurt", 3);
+    actual.put("kluever", 0);
+    assertThat(actual).containsExactlyEntriesIn(ImmutableMap.of("kluever", 0L, "kurt", 3L));
+    assertThat(actual).containsExactlyEntriesIn(AtomicLongMap.create(actual.asMap()));
+  }
+
+  @Test
+  public void containsExactlyEntriesInFailure() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("kurt", 3);
+    actual.put("alfred", 10);
+    actual.put("kluever", 0);
+    expectFailureWhenTestingThat(actual)
+        .containsExactlyEntriesIn(ImmutableMap.of("kurt", 4L, "alfred", 1L, "greg", 0L));
+    assertFailureKeys(
+        "missing entries",
+        "unexpected entries",
+        "wrong values, largest difference first",
+        "expected",
+        "but was");
+    assertFailureValue("missing entries", "{greg=0}");
+    assertFailureValue("unexpected entries", "{kluever=0}");
+    assertFailureValue(
+        "wrong values, largest difference first",
+        "[alfred (expected 1, but was 10, difference 9), "
+            + "kurt (expected 4, but was 3, difference 1)]");
+  }
+
+  @Test
+  public void containsExactlyEntriesInAtomicLongMapFailure() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("kurt", Long.MIN_VALUE);
+    AtomicLongMap<String> expected = AtomicLongMap.create();
+    expected.put("kurt", Long.MAX_VALUE);
+    expectFailureWhenTestingThat(actual).containsExactlyEntriesIn(expected);
+    assertFailureKeys("wrong values, largest difference first", "expected", "but was");
+    assertFailureValue(
+        "wrong values, largest difference first",
+        "[kurt (expected 9223372036854775807, but was -9223372036854775808, "
+            + "difference 18446744073709551615)]");
+  }
+
+  @Test
+  public void hasValuesWithin() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("kurt", 3);
+    actual.put("kluever", 10);
+    assertThat(actual).hasValuesWithin(2).of(ImmutableMap.of("kurt", 5L, "kluever", 8L));
+
+    expectFailureWhenTestingThat(actual)
+        .hasValuesWithin(1)
+        .of(ImmutableMap.of("kurt", 5L, "kluever", 9L));
+    assertFailureKeys("wrong values, largest difference first", "expected", "tolerance", "but was");
+    assertFailureValue(
+        "wrong values, largest difference first", "[kurt (expected 5, but was 3, difference 2)]");
+    assertFailureValue("tolerance", "1");
+  }
+
+  @Test
+  public void containsExactlyEntriesInFailure_large() {
+    AtomicLongMap<Integer> actual = AtomicLongMap.create();
+    Map<Integer, Long> expected = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      actual.put(i, i);
+      expected.put(i, 0L);
+    }
+    expectFailureWhenTestingThat(actual).containsExactlyEntriesIn(expected);
+    assertFailureKeys(
+        "wrong values, largest difference first",
+        "total wrong values",
+        "expected size",
+        "but had size");
+    assertThat(expectFailure.getFailure().getMessage())
+        .contains("[999 (expected 0, but was 999, difference 999), 998 ");
+    assertFailureValue("total wrong values", "999");
+    assertFailureValue("but had size", "1000");
+  }
+
+  @Test
+  public void hasValuesWithinNegative() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    try {
+      assertThat(actual).hasValuesWithin(-1);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
   private AtomicLongMapSubject expectFailureWhenTestingThat(AtomicLongMap<?> actual) {
     return expectFailure.whenTesting().that(actual);
   }
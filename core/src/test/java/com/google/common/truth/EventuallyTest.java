@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Eventually.eventually;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Supplier;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link Eventually}. */
+@RunWith(JUnit4.class)
+public class EventuallyTest {
+
+  @Test
+  public void passesOnceConverged() {
+    Counter counter = new Counter();
+    eventually(10, SECONDS)
+        .that(
+            counter,
+            new Eventually.Check<Integer>() {
+              @Override
+              public void check(StandardSubjectBuilder expect, Integer count) {
+                expect.that(count).isAtLeast(3);
+              }
+            });
+    assertThat(counter.count.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void customSubject() {
+    Counter counter = new Counter();
+    eventually(10, SECONDS)
+        .that(
+            counter,
+            new Eventually.Check<Integer>() {
+              @Override
+              public void check(StandardSubjectBuilder expect, Integer count) {
+                expect.about(strings()).that(String.valueOf(count)).contains("2");
+              }
+            });
+    assertThat(counter.count.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void failsWithLastFailureAfterTimeout() {
+    Counter counter = new Counter();
+    try {
+      eventually(200, MILLISECONDS)
+          .that(
+              counter,
+              new Eventually.Check<Integer>() {
+                @Override
+                public void check(StandardSubjectBuilder expect, Integer count) {
+                  expect.withMessage("count").that(count).isLessThan(0);
+                }
+              });
+    } catch (AssertionError e) {
+      int attempts = counter.count.get();
+      assertThat(attempts).isGreaterThan(1);
+      assertThat(e).hasMessageThat().startsWith("count\nexpected to be less than: 0\nbut was");
+      assertThat(e).hasMessageThat().containsMatch("but was *: " + attempts + "\n");
+      assertThat(e).hasMessageThat().contains("attempts: " + attempts);
+      assertThat(e).hasMessageThat().contains("elapsed : ");
+      assertThat(e).hasCauseThat().isInstanceOf(AssertionError.class);
+      return;
+    }
+    fail();
+  }
+
+  @Test
+  public void zeroTimeoutAttemptsOnce() {
+    Counter counter = new Counter();
+    try {
+      eventually(0, SECONDS)
+          .that(
+              counter,
+              new Eventually.Check<Integer>() {
+                @Override
+                public void check(StandardSubjectBuilder expect, Integer count) {
+                  assertThat(count).isEqualTo(0);
+                }
+              });
+    } catch (AssertionError e) {
+      assertThat(counter.count.get()).isEqualTo(1);
+      assertThat(e).hasMessageThat().contains("attempts: 1");
+      return;
+    }
+    fail();
+  }
+
+  @Test
+  public void propagatesOtherExceptions() {
+    try {
+      eventually(10, SECONDS)
+          .that(
+              new Supplier<Integer>() {
+                @Override
+                public Integer get() {
+                  throw new IllegalStateException("broken");
+                }
+              },
+              new Eventually.Check<Integer>() {
+                @Override
+                public void check(StandardSubjectBuilder expect, Integer count) {}
+              });
+      fail();
+    } catch (IllegalStateException expected) {
+      assertThat(expected).hasMessageThat().isEqualTo("broken");
+    }
+  }
+
+  private static Subject.Factory<StringSubject, String> strings() {
+    return new Subject.Factory<StringSubject, String>() {
+      @Override
+      public StringSubject createSubject(FailureMetadata fm, String that) {
+        return new StringSubject(fm, that);
+      }
+    };
+  }
+
+  /** Returns the number of times it has been called, starting with 1. */
+  private static final class Counter implements Supplier<Integer> {
+    final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Integer get() {
+      return count.incrementAndGet();
+    }
+  }
+}
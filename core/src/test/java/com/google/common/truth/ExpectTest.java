@@ -19,8 +19,11 @@ import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import static java.util.Arrays.asList;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
@@ -214,6 +217,90 @@ public class ExpectTest {
     thrown.expectMessage("1000 expectations failed:");
   }
 
+  @Test
+  public void inParallel() {
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      items.add(i);
+    }
+    expect.inParallel(
+        items,
+        new Expect.ItemCheck<Integer>() {
+          @Override
+          public void check(StandardSubjectBuilder expect, Integer item) {
+            expect.that(item).isAtLeast(0);
+          }
+        });
+    assertThat(expect.hasFailures()).isFalse();
+  }
+
+  @Test
+  public void inParallelReportsFailuresInItemOrder() {
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      items.add(i);
+    }
+    thrown.expectMessage("40 expectations failed:");
+    for (int i = 0; i < 20; i++) {
+      thrown.expectMessage(
+          String.format(
+              "%4d. item %d: %d\n      first\n%4d. item %d, second\n",
+              2 * i + 1, i, i, 2 * i + 2, i));
+    }
+    expect.inParallel(
+        items,
+        new Expect.ItemCheck<Integer>() {
+          @Override
+          public void check(StandardSubjectBuilder expect, Integer item) {
+            // Finish the later items first.
+            sleepUninterruptibly(20 - item, MILLISECONDS);
+            expect.fail("first");
+            throw new AssertionError("item " + item + ", second");
+          }
+        });
+  }
+
+  @Test
+  public void inParallelLabelsFailuresWithItem() {
+    thrown.expectMessage("1 expectation failed:");
+    thrown.expectMessage("1. item 1: b\n     expected: a\n     but was : b");
+    expect.inParallel(
+        asList("a", "b"),
+        new Expect.ItemCheck<String>() {
+          @Override
+          public void check(StandardSubjectBuilder expect, String item) {
+            expect.that(item).isEqualTo("a");
+          }
+        });
+  }
+
+  @Test
+  public void inParallelRethrowsFirstExceptionAfterFailures() {
+    thrown.expectMessage("3 expectations failed:");
+    thrown.expectMessage("1. item 0: a\n     a");
+    thrown.expectMessage("2. item 2: c\n     c");
+    thrown.expectMessage(
+        "3. Also, after those failures, an exception was thrown: "
+            + "java.lang.IllegalStateException: b");
+    ExecutorService executor = newFixedThreadPool(3);
+    try {
+      expect.inParallel(
+          asList("a", "b", "c", "d"),
+          executor,
+          new Expect.ItemCheck<String>() {
+            @Override
+            public void check(StandardSubjectBuilder expect, String item) {
+              if (item.equals("b") || item.equals("d")) {
+                throw new IllegalStateException(item);
+              }
+              expect.fail(item);
+            }
+          });
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   public void failWhenCallingThatAfterTest() {
     ExecutorService executor = newSingleThreadExecutor();
@@ -75,6 +75,12 @@ public class FactTest {
         .isEqualTo("foo:\n    bar\n    baz");
   }
 
+  @Test
+  public void consecutiveAndTrailingNewlines() {
+    assertThat(makeMessage(ImmutableList.<String>of(), ImmutableList.of(fact("foo", "\nbar\n\n"))))
+        .isEqualTo("foo:\n    \n    bar\n    \n    ");
+  }
+
   @Test
   public void newlineWithoutValue() {
     assertThat(
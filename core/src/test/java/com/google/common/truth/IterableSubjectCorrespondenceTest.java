@@ -33,9 +33,13 @@ import static com.google.common.truth.Truth.assertThat;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
 import com.google.common.truth.TestCorrespondences.Record;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -1436,6 +1440,81 @@ public class IterableSubjectCorrespondenceTest extends BaseSubjectTestCase {
                 + "It contains <[+128 which corresponds to 128]>");
   }
 
+  @Test
+  public void comparingElementsUsing_tolerance_largeListsInAnyOrder() {
+    List<Number> actual = new ArrayList<>();
+    List<Number> expected = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      actual.add(100000 - i + 0.05);
+      expected.add(i + 1);
+    }
+    assertThat(actual).comparingElementsUsing(tolerance(0.1)).containsExactlyElementsIn(expected);
+    assertThat(actual)
+        .comparingElementsUsing(tolerance(0.1))
+        .containsAllIn(expected.subList(0, 50000));
+  }
+
+  @Test
+  public void comparingElementsUsing_tolerance_containsAllIn_large_outOfOrder() {
+    List<Number> actual = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      actual.add(i);
+    }
+    List<Number> expected = new ArrayList<>(actual);
+    Collections.swap(expected, 10, 20);
+    expectFailure
+        .whenTesting()
+        .that(actual)
+        .comparingElementsUsing(tolerance(0.1))
+        .containsAllIn(expected)
+        .inOrder();
+    assertFailureKeys(
+        "required elements were all found, but order was wrong",
+        "comparing contents by testing that each element is a finite number within 0.1 of an "
+            + "expected value",
+        "first required element not found in order, at index");
+    assertFailureValue("first required element not found in order, at index", "11");
+  }
+
+  @Test
+  public void comparingElementsUsing_containsExactlyElementsIn_comparesEachPairOnce() {
+    RecordingEquality equality = new RecordingEquality();
+    assertThat(asList(1, 2, 3, 4))
+        .comparingElementsUsing(equality)
+        .containsExactlyElementsIn(asList(1, 2, 4, 3));
+    assertThat(equality.comparisons.entrySet()).hasSize(equality.comparisons.size());
+    // The in-order check's comparisons of (1, 1), (2, 2) and (3, 4) aren't repeated.
+    assertThat(equality.comparisons).hasSize(16);
+  }
+
+  @Test
+  public void comparingElementsUsing_containsAllIn_comparesEachPairOnce() {
+    RecordingEquality equality = new RecordingEquality();
+    expectFailure
+        .whenTesting()
+        .that(asList(1, 2, 3))
+        .comparingElementsUsing(equality)
+        .containsAllIn(asList(3, 1, 5));
+    assertThat(equality.comparisons.entrySet()).hasSize(equality.comparisons.size());
+    assertThat(equality.comparisons).hasSize(9);
+  }
+
+  /** Equality which records the pairs it compares, as "actual:expected". */
+  private static final class RecordingEquality extends Correspondence<Integer, Integer> {
+    final Multiset<String> comparisons = HashMultiset.create();
+
+    @Override
+    public boolean compare(Integer actual, Integer expected) {
+      comparisons.add(actual + ":" + expected);
+      return actual.equals(expected);
+    }
+
+    @Override
+    public String toString() {
+      return "is equal to";
+    }
+  }
+
   private static final class CountsToStringCalls {
     int calls;
 
@@ -22,10 +22,12 @@ import static org.junit.Assert.fail;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.TreeSet;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -223,6 +225,28 @@ public class IterableSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("expected to contain any of", "[5, 6, 0]");
   }
 
+  @Test
+  public void iterableContainsAnyInLargeLists() {
+    assertThat(range(0, 1000)).containsAnyIn(range(999, 1100));
+    assertThat(range(0, 50)).containsAnyIn(range(-1000, 1));
+
+    expectFailureWhenTestingThat(range(0, 1000)).containsAnyIn(range(1000, 1100));
+    assertFailureKeys("expected to contain any of", "but was");
+  }
+
+  @Test
+  public void iterableContainsAnyInLargeSetsUsesTheirEquality() {
+    TreeSet<String> actual = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      actual.add("a" + i);
+      expected.add("B" + i);
+    }
+    expected.add("A99");
+
+    assertThat(actual).containsAnyIn(expected);
+  }
+
   @Test
   public void iterableContainsAnyInArray() {
     assertThat(asList(1, 2, 3)).containsAnyIn(new Integer[] {1, 10, 100});
@@ -434,6 +458,32 @@ public class IterableSubjectTest extends BaseSubjectTestCase {
     expectFailureWhenTestingThat(asList(1, 2)).containsAllOf(2, 1, 3).inOrder();
   }
 
+  @Test
+  public void iterableContainsAllOfWithElementsThatThrowWhenYouCallHashCode() {
+    HashCodeThrower one = new HashCodeThrower();
+    HashCodeThrower two = new HashCodeThrower();
+
+    assertThat(asList(one, two, one)).containsAllOf(one, one).inOrder();
+    assertThat(asList(one, two)).containsAllOf(two, one);
+
+    expectFailureWhenTestingThat(asList(one, two)).containsAllOf(two, one).inOrder();
+    assertFailureKeys(
+        "required elements were all found, but order was wrong",
+        "expected order for required elements",
+        "but was");
+  }
+
+  @Test
+  public void iterableContainsAllOfInOrderPairsEachElementWithTheNextOccurrence() {
+    assertThat(asList(1, 2, 1, 3, 2)).containsAllOf(1, 1, 2).inOrder();
+    assertThat(asList(1, 2, 1, 3, 2)).containsAllOf(2, 1, 2).inOrder();
+    expectFailureWhenTestingThat(asList(1, 2, 1, 3, 2)).containsAllOf(3, 2, 1).inOrder();
+    assertFailureKeys(
+        "required elements were all found, but order was wrong",
+        "expected order for required elements",
+        "but was");
+  }
+
   @Test
   public void iterableContainsAllInIterable() {
     assertThat(asList(1, 2, 3)).containsAllIn(asList(1, 2));
@@ -507,6 +557,26 @@ public class IterableSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("full contents", "[1, 2, 3]");
   }
 
+  @Test
+  public void iterableContainsNoneInLargeLists() {
+    assertThat(range(0, 1000)).containsNoneIn(range(1000, 1100));
+
+    List<Integer> excluded = new ArrayList<>(range(-100, 0));
+    excluded.add(700);
+    excluded.add(20);
+    excluded.add(700);
+    expectFailureWhenTestingThat(range(0, 1000)).containsNoneIn(excluded);
+    assertFailureValue("but contained", "[700, 20]");
+  }
+
+  private static List<Integer> range(int from, int to) {
+    List<Integer> list = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      list.add(i);
+    }
+    return list;
+  }
+
   @Test
   public void iterableContainsNoneInArray() {
     assertThat(asList(1, 2, 3)).containsNoneIn(new Integer[] {4, 5, 6});
@@ -272,6 +272,33 @@ public class MapSubjectTest extends BaseSubjectTestCase {
                 + "<{jan=1, march=3, feb=2}>");
   }
 
+  @Test
+  public void containsExactlyWrongValueAfterKeysOutOfOrder() {
+    ImmutableMap<String, Integer> actual =
+        ImmutableMap.of("jan", 1, "feb", 2, "march", 3, "april", 4);
+    expectFailureWhenTestingThat(actual)
+        .containsExactly("jan", 1, "march", 3, "feb", 22, "april", 4);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <{jan=1, feb=2, march=3, april=4}> contains exactly "
+                + "<{jan=1, march=3, feb=22, april=4}>. "
+                + "It has the following entries with matching keys but different values: "
+                + "{feb=(expected 22 but got 2)}");
+  }
+
+  @Test
+  public void containsExactlyExtraKeysInActualOrder() {
+    ImmutableMap<String, Integer> actual =
+        ImmutableMap.of("jan", 1, "may", 5, "feb", 2, "april", 4);
+    expectFailureWhenTestingThat(actual).containsExactly("feb", 2, "jan", 1);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <{jan=1, may=5, feb=2, april=4}> contains exactly <{feb=2, jan=1}>. "
+                + "It has the following entries with unexpected keys: {may=5, april=4}");
+  }
+
   @Test
   @SuppressWarnings("ShouldHaveEvenArgs")
   public void containsExactlyBadNumberOfArgs() {
@@ -16,8 +16,12 @@
 package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.LinkedHashMultiset;
 import com.google.common.collect.Multiset;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -48,6 +52,115 @@ public class MultisetSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("value of", "multiset.count(kurt)");
   }
 
+  private static final int BILLION = 1000000000;
+
+  @Test
+  public void containsExactlyElementsIn_largeCounts() {
+    Multiset<String> multiset = LinkedHashMultiset.create();
+    multiset.add("kurt", 2 * BILLION);
+    multiset.add("kluever", BILLION);
+    Multiset<String> expected = HashMultiset.create();
+    expected.add("kluever", BILLION);
+    expected.add("kurt", 2 * BILLION);
+    assertThat(multiset).containsExactlyElementsIn(expected);
+    assertThat(multiset).containsExactlyElementsIn(ImmutableMultiset.copyOf(multiset)).inOrder();
+  }
+
+  @Test
+  public void containsExactlyElementsIn_largeCountsFailure() {
+    Multiset<String> multiset = LinkedHashMultiset.create();
+    multiset.add("kurt", 2 * BILLION);
+    multiset.add("kluever", BILLION);
+    Multiset<String> expected = LinkedHashMultiset.create();
+    expected.add("kurt", 2 * BILLION + 1);
+    expected.add("alfred");
+    expectFailureWhenTestingThat(multiset).containsExactlyElementsIn(expected);
+    assertFailureKeys("elements with different counts", "expected", "but was");
+    assertFailureValue(
+        "elements with different counts",
+        "[kurt (expected count 2000000001, but was 2000000000), "
+            + "alfred (expected count 1, but was 0), "
+            + "kluever (expected count 0, but was 1000000000)]");
+  }
+
+  @Test
+  public void containsExactly_inOrderOfEntries() {
+    Multiset<String> multiset = LinkedHashMultiset.create(asList("kurt", "kluever", "kurt"));
+    assertThat(multiset).containsExactly("kurt", "kurt", "kluever").inOrder();
+    expectFailureWhenTestingThat(multiset).containsExactly("kurt", "kluever", "kurt").inOrder();
+    assertFailureKeys("contents match, but order was wrong", "expected", "but was");
+  }
+
+  @Test
+  public void containsExactly_smallFailureDescribesElements() {
+    expectFailureWhenTestingThat(ImmutableMultiset.of("kurt", "kluever")).containsExactly("kurt");
+    assertFailureKeys("unexpected (1)", "---", "expected", "but was");
+  }
+
+  @Test
+  public void containsAllIn_largeCounts() {
+    Multiset<String> multiset = LinkedHashMultiset.create();
+    multiset.add("kurt", 2 * BILLION);
+    multiset.add("alfred");
+    multiset.add("kluever", BILLION);
+    Multiset<String> expected = LinkedHashMultiset.create();
+    expected.add("kurt", BILLION);
+    expected.add("kluever", BILLION);
+    assertThat(multiset).containsAllIn(expected).inOrder();
+    assertThat(multiset).containsAllOf("kurt", "kluever").inOrder();
+    expectFailureWhenTestingThat(multiset).containsAllOf("kluever", "kurt").inOrder();
+    assertFailureKeys(
+        "required elements were all found, but order was wrong",
+        "expected order for required elements",
+        "but was");
+  }
+
+  @Test
+  public void containsAllIn_largeCountsFailure() {
+    Multiset<String> multiset = HashMultiset.create();
+    multiset.add("kurt", 2 * BILLION);
+    Multiset<String> expected = HashMultiset.create();
+    expected.add("kurt", 2 * BILLION + 1);
+    expectFailureWhenTestingThat(multiset).containsAllIn(expected);
+    assertFailureKeys("elements with too few copies", "expected to contain at least", "but was");
+    assertFailureValue(
+        "elements with too few copies", "[kurt (expected count 2000000001, but was 2000000000)]");
+  }
+
+  @Test
+  public void containsNoDuplicates_largeCounts() {
+    Multiset<String> multiset = LinkedHashMultiset.create();
+    multiset.add("kurt", 2 * BILLION);
+    multiset.add("kluever");
+    expectFailureWhenTestingThat(multiset).containsNoDuplicates();
+    assertFailureKeys("expected not to contain duplicates", "but contained", "full contents");
+    assertFailureValue("but contained", "[kurt x 2000000000]");
+  }
+
+  @Test
+  public void containsExactlyCountsIn() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("kurt", "kurt", "kluever");
+    assertThat(multiset).containsExactlyCountsIn(HashMultiset.create(multiset));
+
+    expectFailureWhenTestingThat(multiset)
+        .containsExactlyCountsIn(ImmutableMultiset.of("kurt", "kluever", "kluever"));
+    assertFailureKeys("elements with different counts", "expected", "but was");
+    assertFailureValue(
+        "elements with different counts",
+        "[kurt (expected count 1, but was 2), kluever (expected count 2, but was 1)]");
+  }
+
+  @Test
+  public void hasCounts() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("kurt", "kurt", "kluever");
+    assertThat(multiset).hasCounts(ImmutableMap.of("kurt", 2, "alfred", 0));
+
+    expectFailureWhenTestingThat(multiset).hasCounts(ImmutableMap.of("kurt", 2, "kluever", 3));
+    assertFailureKeys("elements with different counts", "expected counts", "but was");
+    assertFailureValue(
+        "elements with different counts", "[kluever (expected count 3, but was 1)]");
+  }
+
   private MultisetSubject expectFailureWhenTestingThat(Multiset<?> actual) {
     return expectFailure.whenTesting().that(actual);
   }
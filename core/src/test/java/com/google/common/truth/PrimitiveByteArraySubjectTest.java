@@ -17,6 +17,7 @@ package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.base.Strings;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -60,6 +61,37 @@ public class PrimitiveByteArraySubjectTest extends BaseSubjectTestCase {
     assertThat(expectFailure.getFailure()).isInstanceOf(ComparisonFailureWithFacts.class);
   }
 
+  @Test
+  public void isEqualTo_Fail_LargeArrays() {
+    byte[] expected = new byte[4096];
+    byte[] actual = new byte[4096];
+    actual[3000] = 1;
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertFailureKeys(
+        "expected",
+        "but was",
+        "differs at index",
+        "expected, from index 2984",
+        "but was, from index 2984");
+    // The arrays only differ beyond the truncated formatting, which must not claim otherwise.
+    assertFailureValue("but was", Strings.repeat("00", 1024) + "... (4096 bytes)");
+    assertFailureValue("differs at index", "[3000]");
+    assertFailureValue(
+        "but was, from index 2984",
+        "[0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, "
+            + "1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0]");
+    assertThat(expectFailure.getFailure().getMessage()).contains("... (4096 bytes)");
+    assertThat(expectFailure.getFailure().getMessage().length()).isLessThan(10000);
+  }
+
+  @Test
+  public void isEqualTo_Fail_LargeArraysOfDifferentLengths() {
+    expectFailureWhenTestingThat(new byte[2000]).isEqualTo(new byte[2001]);
+    assertFailureValue("differs at index", "[2000]");
+    assertFailureValue("expected length", "2001");
+    assertFailureValue("but had length", "2000");
+  }
+
   @Test
   public void isEqualTo_Fail_NotAnArray() {
     expectFailureWhenTestingThat(array(BYTE_0, BYTE_1)).isEqualTo(new int[] {});
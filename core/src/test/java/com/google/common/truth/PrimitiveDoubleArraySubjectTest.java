@@ -28,6 +28,8 @@ import com.google.common.primitives.Floats;
 import com.google.common.primitives.Longs;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -109,6 +111,19 @@ public class PrimitiveDoubleArraySubjectTest extends BaseSubjectTestCase {
     assertFailureValue("but was", "[0.0]");
   }
 
+  @Test
+  public void isEqualTo_WithoutToleranceParameter_Fail_LargeArrays() {
+    double[] expected = new double[2000];
+    double[] actual = new double[2000];
+    actual[1000] = 0.5;
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertFailureValue("differs at index", "[1000]");
+    assertFailureValue(
+        "but was, from index 984",
+        "[0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, "
+            + "0.5, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0]");
+  }
+
   @Test
   public void isEqualTo_WithoutToleranceParameter_Fail_NotAnArray() {
     expectFailureWhenTestingThat(array(2.2d, 3.3d, 4.4d)).isEqualTo(new Object());
@@ -1043,6 +1058,150 @@ public class PrimitiveDoubleArraySubjectTest extends BaseSubjectTestCase {
     assertFailureValue("expected", "[2.2, 1.1, 3.3]");
   }
 
+  @Test
+  public void usingTolerance_containsExactly_primitiveDoubleArray_large_success() {
+    double[] actual = new double[100000];
+    double[] expected = new double[actual.length];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = actual.length - i + DEFAULT_TOLERANCE / 2;
+      expected[i] = i + 1;
+    }
+    assertThat(actual).usingTolerance(DEFAULT_TOLERANCE).containsExactly(expected);
+  }
+
+  @Test
+  public void usingTolerance_containsExactly_primitiveDoubleArray_large_inOrder_failure() {
+    double[] actual = new double[100000];
+    double[] expected = new double[actual.length];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = i;
+      expected[i] = i;
+    }
+    expected[500] = 501;
+    expected[501] = 500;
+    expectFailureWhenTestingThat(actual)
+        .usingTolerance(DEFAULT_TOLERANCE)
+        .containsExactly(expected)
+        .inOrder();
+    assertFailureKeys(
+        "value of",
+        "contents match, but order was wrong",
+        "comparing contents by testing that each element is a finite number within "
+            + DEFAULT_TOLERANCE
+            + " of an expected value",
+        "first element out of order at index");
+    assertFailureValue("first element out of order at index", "500");
+  }
+
+  @Test
+  public void usingTolerance_containsExactly_primitiveDoubleArray_large_failure() {
+    double[] actual = new double[100000];
+    double[] expected = new double[actual.length];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = i;
+      expected[i] = i;
+    }
+    actual[1234] = 1234.5;
+    actual[4321] = 4321.25;
+    expectFailureWhenTestingThat(actual)
+        .usingTolerance(DEFAULT_TOLERANCE)
+        .containsExactly(expected);
+    assertFailureKeys(
+        "value of",
+        "expected to contain exactly the expected values, in any order",
+        "comparing contents by testing that each element is a finite number within "
+            + DEFAULT_TOLERANCE
+            + " of an expected value",
+        "expected values without a matching actual value",
+        "actual values without a matching expected value",
+        "largest difference between values of the same rank",
+        "expected value of that rank",
+        "actual value of that rank");
+    assertFailureValue("expected values without a matching actual value", "2");
+    assertFailureValue("actual values without a matching expected value", "2");
+    assertFailureValue("expected value of that rank", "1234.0");
+    assertFailureValue("actual value of that rank", "1234.5");
+  }
+
+  @Test
+  public void usingTolerance_containsExactly_primitiveDoubleArray_large_failure_outOfOrder() {
+    double[] actual = new double[100000];
+    double[] expected = new double[actual.length];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = actual.length - 1 - i;
+      expected[i] = i;
+    }
+    actual[10] = 99989.5;
+    expectFailureWhenTestingThat(actual)
+        .usingTolerance(DEFAULT_TOLERANCE)
+        .containsExactly(expected);
+    assertFailureValue("expected values without a matching actual value", "1");
+    assertFailureValue("actual values without a matching expected value", "1");
+    assertFailureValue("expected value of that rank", "99989.0");
+    assertFailureValue("actual value of that rank", "99989.5");
+  }
+
+  @Test
+  public void usingTolerance_containsAllOf_primitiveDoubleArray_large_success() {
+    double[] actual = new double[100000];
+    double[] expected = new double[actual.length / 2];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = actual.length - i + DEFAULT_TOLERANCE / 2;
+    }
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = 2 * i + 1;
+    }
+    assertThat(actual).usingTolerance(DEFAULT_TOLERANCE).containsAllOf(expected);
+  }
+
+  @Test
+  public void usingTolerance_containsAllOf_primitiveDoubleArray_large_failure() {
+    double[] actual = new double[100000];
+    double[] expected = new double[actual.length / 2];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = i;
+    }
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = 2 * i;
+    }
+    expected[100] = 0.5;
+    expected[200] = NaN;
+    expectFailureWhenTestingThat(actual)
+        .usingTolerance(DEFAULT_TOLERANCE)
+        .containsAllOf(expected);
+    assertFailureKeys(
+        "value of",
+        "expected to contain at least the expected values, in any order",
+        "comparing contents by testing that each element is a finite number within "
+            + DEFAULT_TOLERANCE
+            + " of an expected value",
+        "expected values without a matching actual value",
+        "expected length",
+        "actual length");
+    assertFailureValue("expected values without a matching actual value", "2");
+  }
+
+  @Test
+  public void usingTolerance_containsExactly_primitiveDoubleArray_large_wrongLength() {
+    double[] actual = new double[100000];
+    double[] expected = new double[actual.length + 1];
+    expectFailureWhenTestingThat(actual)
+        .usingTolerance(DEFAULT_TOLERANCE)
+        .containsExactly(expected);
+    assertFailureKeys(
+        "value of",
+        "expected to contain exactly the expected values, in any order",
+        "comparing contents by testing that each element is a finite number within "
+            + DEFAULT_TOLERANCE
+            + " of an expected value",
+        "expected length",
+        "but had length",
+        "expected values without a matching actual value",
+        "actual values without a matching expected value");
+    assertFailureValue("expected length", "100001");
+    assertFailureValue("but had length", "100000");
+  }
+
   @Test
   public void usingTolerance_containsNoneOf_primitiveDoubleArray_success() {
     assertThat(array(1.1, TOLERABLE_2POINT2, 3.3))
@@ -1284,6 +1443,89 @@ public class PrimitiveDoubleArraySubjectTest extends BaseSubjectTestCase {
                 + "element in <[99.99, 2.2]>. It contains <[2.2 which corresponds to 2.2]>");
   }
 
+  @Test
+  public void statistics() {
+    double[] values = array(2, 4, 4, 4, 5, 5, 7, 9);
+    assertThat(values).hasMeanWithin(0).of(5);
+    assertThat(values).hasStandardDeviationWithin(0).of(2);
+    assertThat(values).hasMinThat().isEqualTo(2.0);
+    assertThat(values).hasMaxThat().isEqualTo(9.0);
+    assertThat(values).hasNoNaNs();
+  }
+
+  @Test
+  public void statistics_largeOffsetDoesNotCancel() {
+    double[] values = array(1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16);
+    assertThat(values).hasMeanWithin(0).of(1e9 + 10);
+    assertThat(values).hasStandardDeviationWithin(1e-9).of(Math.sqrt(22.5));
+  }
+
+  @Test
+  public void statistics_compensatedSum() {
+    double[] values = new double[1_000_000];
+    Arrays.fill(values, 0.1);
+    assertThat(values).hasMeanWithin(1e-17).of(0.1);
+  }
+
+  @Test
+  public void hasMeanWithin_failure() {
+    expectFailureWhenTestingThat(array(1, 2, 3)).hasMeanWithin(0.5).of(3);
+    assertFailureKeys("value of", "expected", "but was", "outside tolerance", "array was");
+    assertFailureValue("value of", "array.mean()");
+    assertFailureValue("but was", "2.0");
+  }
+
+  @Test
+  public void hasMinThat_empty() {
+    expectFailureWhenTestingThat(array()).hasMinThat().isEqualTo(0.0);
+    assertFailureKeys("expected not to be empty", "but was");
+  }
+
+  @Test
+  public void hasMaxThat_nan() {
+    assertThat(array(1, NaN, 3)).hasMaxThat().isNaN();
+  }
+
+  @Test
+  public void hasNoNaNs_failure() {
+    expectFailureWhenTestingThat(array(1, NaN, 3, NaN)).hasNoNaNs();
+    assertFailureKeys("expected to contain no NaNs", "number of NaNs", "but was");
+    assertFailureValue("number of NaNs", "2");
+  }
+
+  @Test
+  public void percentile() {
+    double[] values = array(0.5, NaN, -0.0, 0.0, -1);
+    assertThat(values).percentile(0).isEqualTo(-1.0);
+    assertThat(values).percentile(25).isEqualTo(-0.0);
+    assertThat(values).percentile(50).isEqualTo(0.0);
+    assertThat(values).percentile(75).isEqualTo(0.5);
+    assertThat(values).percentile(100).isNaN();
+  }
+
+  @Test
+  public void percentile_matchesSortedArray() {
+    Random random = new Random(0);
+    double[] values = new double[10_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextInt(100) / 4.0;
+    }
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    for (double p : new double[] {0, 1, 50, 99, 99.9, 100}) {
+      assertThat(values)
+          .percentile(p)
+          .isEqualTo(sorted[(int) Math.round(p / 100 * (values.length - 1))]);
+    }
+  }
+
+  @Test
+  public void percentile_failure() {
+    expectFailureWhenTestingThat(array(1, 2, 3)).percentile(50).isGreaterThan(2.0);
+    assertFailureValue("value of", "array.percentile(50.0)");
+    assertFailureValue("but was", "2.0");
+  }
+
   @Test
   public void smallDifferenceInLongRepresentation() {
     expectFailureWhenTestingThat(array(-4.4501477170144023E-308))
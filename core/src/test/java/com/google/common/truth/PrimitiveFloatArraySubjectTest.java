@@ -1040,6 +1040,69 @@ public class PrimitiveFloatArraySubjectTest extends BaseSubjectTestCase {
     assertFailureValue("expected", lenientFormat("[%s, %s, %s]", 2.0f, 1.0f, 3.0f));
   }
 
+  @Test
+  public void usingTolerance_containsExactly_primitiveFloatArray_large_success() {
+    float[] actual = new float[100000];
+    float[] expected = new float[actual.length];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = actual.length - i;
+      expected[i] = i + 1;
+    }
+    assertThat(actual).usingTolerance(DEFAULT_TOLERANCE).containsExactly(expected);
+  }
+
+  @Test
+  public void usingTolerance_containsExactly_primitiveFloatArray_large_inOrder_failure() {
+    float[] actual = new float[100000];
+    float[] expected = new float[actual.length];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = i;
+      expected[i] = i;
+    }
+    expected[500] = 501;
+    expected[501] = 500;
+    expectFailureWhenTestingThat(actual)
+        .usingTolerance(DEFAULT_TOLERANCE)
+        .containsExactly(expected)
+        .inOrder();
+    assertFailureKeys(
+        "value of",
+        "contents match, but order was wrong",
+        "comparing contents by testing that each element is a finite number within "
+            + (double) DEFAULT_TOLERANCE
+            + " of an expected value",
+        "first element out of order at index");
+    assertFailureValue("first element out of order at index", "500");
+  }
+
+  @Test
+  public void usingTolerance_containsExactly_primitiveFloatArray_large_failure() {
+    float[] actual = new float[100000];
+    float[] expected = new float[actual.length];
+    for (int i = 0; i < actual.length; i++) {
+      actual[i] = i;
+      expected[i] = i;
+    }
+    actual[1234] = 1234.5f;
+    actual[4321] = 4321.25f;
+    expectFailureWhenTestingThat(actual)
+        .usingTolerance(DEFAULT_TOLERANCE)
+        .containsExactly(expected);
+    assertFailureKeys(
+        "value of",
+        "expected to contain exactly the expected values, in any order",
+        "comparing contents by testing that each element is a finite number within "
+            + (double) DEFAULT_TOLERANCE
+            + " of an expected value",
+        "expected values without a matching actual value",
+        "actual values without a matching expected value",
+        "largest difference between values of the same rank",
+        "expected value of that rank",
+        "actual value of that rank");
+    assertFailureValue("expected values without a matching actual value", "2");
+    assertFailureValue("actual values without a matching expected value", "2");
+  }
+
   @Test
   public void usingTolerance_containsNoneOf_primitiveFloatArray_success() {
     assertThat(array(1.0f, TOLERABLE_TWO, 3.0f))
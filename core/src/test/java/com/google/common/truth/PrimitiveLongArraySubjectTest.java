@@ -16,7 +16,10 @@
 package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.Random;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -55,6 +58,41 @@ public class PrimitiveLongArraySubjectTest extends BaseSubjectTestCase {
     assertFailureValue("differs at index", "[0]");
   }
 
+  @Test
+  public void isEqualTo_Fail_LargeArrays() {
+    long[] expected = new long[100000];
+    long[] actual = new long[100000];
+    actual[99999] = 1;
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertFailureKeys(
+        "expected",
+        "but was",
+        "differs at index",
+        "expected, from index 99983",
+        "but was, from index 99983");
+    assertFailureValue("differs at index", "[99999]");
+    assertFailureValue(
+        "but was, from index 99983", "[0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1]");
+    assertThat(expectFailure.getFailure().getMessage()).contains(", ... (100000 elements)]");
+    assertThat(expectFailure.getFailure().getMessage().length()).isLessThan(20000);
+  }
+
+  @Test
+  public void isEqualTo_Fail_NestedLargeArrays() {
+    long[][] expected = {new long[100000]};
+    long[][] actual = {new long[100000]};
+    actual[0][50000] = 1;
+    expectFailure.whenTesting().that(actual).isEqualTo(expected);
+    assertFailureKeys(
+        "expected",
+        "but was",
+        "differs at index",
+        "expected, from index [0][49984]",
+        "but was, from index [0][49984]");
+    assertFailureValue("differs at index", "[0][50000]");
+    assertThat(expectFailure.getFailure().getMessage().length()).isLessThan(20000);
+  }
+
   @Test
   public void isEqualTo_Fail_NotAnArray() {
     expectFailureWhenTestingThat(array(2, 3, 4)).isEqualTo(new int[] {});
@@ -90,6 +128,59 @@ public class PrimitiveLongArraySubjectTest extends BaseSubjectTestCase {
     expectFailureWhenTestingThat(same).isNotEqualTo(same);
   }
 
+  @Test
+  public void percentile() {
+    long[] values = array(50, 10, 40, 20, 30);
+    assertThat(values).percentile(0).isEqualTo(10);
+    assertThat(values).percentile(50).isEqualTo(30);
+    assertThat(values).percentile(60).isEqualTo(30);
+    assertThat(values).percentile(65).isEqualTo(40);
+    assertThat(values).percentile(100).isEqualTo(50);
+    assertThat(values).isEqualTo(array(50, 10, 40, 20, 30));
+  }
+
+  @Test
+  public void percentile_matchesSortedArray() {
+    Random random = new Random(0);
+    for (int length : new int[] {1, 2, 17, 100, 10_000}) {
+      long[] values = new long[length];
+      for (int i = 0; i < length; i++) {
+        // Few distinct values, so that there are many duplicates.
+        values[i] = random.nextInt(length / 10 + 1);
+      }
+      long[] sorted = values.clone();
+      Arrays.sort(sorted);
+      for (double p : new double[] {0, 1, 25, 50, 90, 99, 99.9, 100}) {
+        assertThat(values)
+            .percentile(p)
+            .isEqualTo(sorted[(int) Math.round(p / 100 * (length - 1))]);
+      }
+    }
+  }
+
+  @Test
+  public void percentile_failure() {
+    expectFailureWhenTestingThat(array(1, 2, 3)).percentile(99).isAtMost(2L);
+    assertFailureKeys("value of", "expected to be at most", "but was", "array was");
+    assertFailureValue("value of", "array.percentile(99.0)");
+    assertFailureValue("but was", "3");
+  }
+
+  @Test
+  public void percentile_empty() {
+    expectFailureWhenTestingThat(array()).percentile(50).isEqualTo(0);
+    assertFailureKeys("expected not to be empty", "but was");
+  }
+
+  @Test
+  public void percentile_outOfRange() {
+    try {
+      assertThat(array(1)).percentile(101);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
   private static long[] array(long... ts) {
     return ts;
   }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.testing.FakeTicker;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link SamplingFailureStrategy}. */
+@RunWith(JUnit4.class)
+public class SamplingFailureStrategyTest {
+  private final List<AssertionError> reported = new ArrayList<>();
+  private final FailureStrategy recorder =
+      new FailureStrategy() {
+        @Override
+        public void fail(AssertionError failure) {
+          reported.add(failure);
+        }
+      };
+  private final FakeTicker ticker = new FakeTicker();
+
+  @Test
+  public void samplesOneInN() {
+    SamplingFailureStrategy strategy =
+        SamplingFailureStrategy.builder(recorder).sampleOneIn(3).build();
+    List<Boolean> samples = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      samples.add(strategy.sample());
+    }
+    assertThat(samples).containsExactly(true, false, false, true, false, false, true).inOrder();
+    assertThat(strategy.checkedCount()).isEqualTo(3);
+    assertThat(strategy.skippedCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void samplesAtMostEveryInterval() {
+    SamplingFailureStrategy strategy =
+        SamplingFailureStrategy.builder(recorder)
+            .sampleAtMostEvery(1, SECONDS)
+            .ticker(ticker)
+            .build();
+    assertThat(strategy.sample()).isTrue();
+    assertThat(strategy.sample()).isFalse();
+    ticker.advance(999, MILLISECONDS);
+    assertThat(strategy.sample()).isFalse();
+    ticker.advance(1, MILLISECONDS);
+    assertThat(strategy.sample()).isTrue();
+    assertThat(strategy.sample()).isFalse();
+    assertThat(strategy.checkedCount()).isEqualTo(2);
+    assertThat(strategy.skippedCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void reportsEveryFailureByDefault() {
+    SamplingFailureStrategy strategy = SamplingFailureStrategy.builder(recorder).build();
+    StandardSubjectBuilder check = StandardSubjectBuilder.forCustomFailureStrategy(strategy);
+    for (int i = 0; i < 3; i++) {
+      check.that(i).isEqualTo(-1);
+    }
+    assertThat(reported).hasSize(3);
+    assertThat(strategy.failureCount()).isEqualTo(3);
+    assertThat(strategy.reportedFailureCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void rateLimitsEachCallSite() {
+    SamplingFailureStrategy strategy =
+        SamplingFailureStrategy.builder(recorder)
+            .reportEachCallSiteAtMostEvery(1, SECONDS)
+            .ticker(ticker)
+            .build();
+    StandardSubjectBuilder check = StandardSubjectBuilder.forCustomFailureStrategy(strategy);
+    for (int i = 0; i < 3; i++) {
+      checkNegative(check, i);
+      checkGreaterThanTen(check, i);
+    }
+    assertThat(reported).hasSize(2);
+    assertThat(reported.get(0)).hasMessageThat().contains("expected to be less than: 0");
+    assertThat(reported.get(1)).hasMessageThat().contains("expected to be greater than: 10");
+
+    ticker.advance(1, SECONDS);
+    checkNegative(check, 3);
+    checkNegative(check, 4);
+    assertThat(reported).hasSize(3);
+    assertThat(reported.get(2)).hasMessageThat().containsMatch("but was *: 3");
+    assertThat(strategy.failureCount()).isEqualTo(8);
+    assertThat(strategy.reportedFailureCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void rateLimitsEachCallSite_stackTraceCleaningDisabled() {
+    String property = "com.google.common.truth.disable_stack_trace_cleaning";
+    String previous = System.getProperty(property);
+    System.setProperty(property, "true");
+    try {
+      rateLimitsEachCallSite();
+    } finally {
+      if (previous == null) {
+        System.clearProperty(property);
+      } else {
+        System.setProperty(property, previous);
+      }
+    }
+  }
+
+  private static void checkNegative(StandardSubjectBuilder check, int value) {
+    check.that(value).isLessThan(0);
+  }
+
+  private static void checkGreaterThanTen(StandardSubjectBuilder check, int value) {
+    check.that(value).isGreaterThan(10);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link StreamingLineDiff}. */
+@RunWith(JUnit4.class)
+public class StreamingLineDiffTest {
+
+  @Test
+  public void sameLines() throws IOException {
+    assertThat(diff("a\nb\nc", "a\r\nb\rc\n")).isEmpty();
+    assertThat(diff("", "")).isEmpty();
+  }
+
+  @Test
+  public void changedLine() throws IOException {
+    ImmutableList<Fact> diff = diff("a\nb\nc\nd\ne\nf\ng\nh", "a\nb\nc\nD\ne\nf\ng\nh");
+    assertThat(diff).hasSize(1);
+    assertThat(diff.get(0).key).isEqualTo("diff");
+    assertThat(diff.get(0).value)
+        .isEqualTo("@@ -1,7 +1,7 @@\n a\n b\n c\n-d\n+D\n e\n f\n g");
+  }
+
+  @Test
+  public void addedAndRemovedLines() throws IOException {
+    assertThat(diff("a\nb\nc", "a\nb\nc\nd\ne").get(0).value)
+        .isEqualTo("@@ -1,3 +1,5 @@\n a\n b\n c\n+d\n+e");
+    assertThat(diff("a\nb\nc\nd\ne", "c\nd\ne").get(0).value)
+        .isEqualTo("@@ -1,5 +1,3 @@\n-a\n-b\n c\n d\n e");
+  }
+
+  @Test
+  public void manyChangesAcrossWindows() throws IOException {
+    List<String> expected = numberedLines(5000);
+    List<String> actual = new ArrayList<>(expected);
+    for (int i = actual.size() - 1; i > 0; i -= 298) {
+      if (i % 3 == 0) {
+        actual.remove(i);
+      } else if (i % 3 == 1) {
+        actual.add(i, "inserted");
+      } else {
+        actual.set(i, "changed");
+      }
+    }
+    assertSameAsMakeDiff(lines(expected), lines(actual));
+  }
+
+  @Test
+  public void changeLargerThanWindow() throws IOException {
+    List<String> expected = numberedLines(3000);
+    List<String> actual = new ArrayList<>(expected);
+    actual.subList(10, 1500).clear();
+    ImmutableList<Fact> diff = diff(lines(expected), lines(actual));
+    assertThat(diff).hasSize(2);
+    assertThat(diff.get(0).value).startsWith("@@ -8,");
+    assertThat(diff.get(1).key).isEqualTo("(diff truncated)");
+  }
+
+  private static void assertSameAsMakeDiff(String expected, String actual) throws IOException {
+    // Facts don't implement equals(), so compare their string representations.
+    assertThat(diff(expected, actual).toString())
+        .isEqualTo(Platform.makeDiff(expected, actual).toString());
+  }
+
+  private static ImmutableList<Fact> diff(String expected, String actual) throws IOException {
+    return StreamingLineDiff.diff(
+        new BufferedReader(new StringReader(expected)),
+        new BufferedReader(new StringReader(actual)));
+  }
+
+  private static List<String> numberedLines(int count) {
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      lines.add("line " + i);
+    }
+    return lines;
+  }
+
+  private static String lines(List<String> lines) {
+    return Joiner.on('\n').join(lines);
+  }
+}
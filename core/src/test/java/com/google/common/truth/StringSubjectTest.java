@@ -21,6 +21,7 @@ import static org.junit.Assert.fail;
 
 import com.google.common.annotations.GwtIncompatible;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -212,6 +213,36 @@ public class StringSubjectTest extends BaseSubjectTestCase {
     assertThat("aba").containsMatch(Pattern.compile("[b]"));
   }
 
+  @Test
+  public void stringContainsAllMatchesOf() {
+    assertThat("ushers").containsAllMatchesOf("he", "she", "hers", "s$", "u.h");
+    assertThat("a.b").containsAllMatchesOf("a.b", "", "[.]");
+
+    expectFailureWhenTestingThat("ushers").containsAllMatchesOf("she", "his", "^h", "hers");
+    assertFailureKeys(
+        "expected to contain matches for all of", "but contained no match for", "but was");
+    assertFailureValue("but contained no match for", "[his, ^h]");
+  }
+
+  @Test
+  public void stringContainsNoMatchesOf() {
+    assertThat("ushers").containsNoMatchesOf("his", "^h", "rs.", "ushersx");
+
+    expectFailureWhenTestingThat("ushers").containsNoMatchesOf("his", "rs$", "he", "x*");
+    assertFailureKeys(
+        "expected not to contain a match for any of", "but contained matches for", "but was");
+    assertFailureValue("but contained matches for", "[rs$, he, x*]");
+  }
+
+  @Test
+  @GwtIncompatible("Pattern")
+  public void stringContainsAllMatchesOfQuotedLiterals() {
+    assertThat("1+1=2?").containsAllMatchesOf(Pattern.quote("1+1"), Pattern.quote("=2?"));
+
+    expectFailureWhenTestingThat("1+1=2?").containsAllMatchesOf(Pattern.quote("1+1=3"));
+    assertFailureValue("but contained no match for", "[" + Pattern.quote("1+1=3") + "]");
+  }
+
   @Test
   public void stringContainsMatchString() {
     assertThat("aba").containsMatch(".*b.*");
@@ -220,6 +251,28 @@ public class StringSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("expected to contain a match for", ".*b.*");
   }
 
+  @Test
+  @GwtIncompatible("Pattern cache")
+  public void stringRegexAssertionsReuseCompiledPatterns() {
+    String regex = "re(use)+d?";
+    long hits = Platform.patternCacheStats().hitCount();
+    assertThat("reuse").matches(regex);
+    assertThat("reused").containsMatch(regex);
+    assertThat("used").doesNotMatch(regex);
+    assertThat("used").doesNotContainMatch(regex);
+    assertThat(Platform.patternCacheStats().hitCount() - hits).isAtLeast(3L);
+  }
+
+  @Test
+  @GwtIncompatible("PatternSyntaxException")
+  public void stringMatchesInvalidRegex() {
+    try {
+      assertThat("abc").matches("(");
+      fail();
+    } catch (PatternSyntaxException expected) {
+    }
+  }
+
   @Test
   @GwtIncompatible("Pattern")
   public void stringContainsMatchPattern() {
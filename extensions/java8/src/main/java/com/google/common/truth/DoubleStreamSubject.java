@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+
+import com.google.common.primitives.Doubles;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Propositions for {@link DoubleStream} subjects.
+ *
+ * <p><b>Note:</b> the wrapped stream will be drained immediately into a private array to provide
+ * more readable failure messages. You should not use this class if you intend to leave the
+ * stream un-consumed or if the stream is <i>very</i> large or infinite.
+ *
+ * <p>If you intend to make multiple assertions on the same stream of data you should instead first
+ * collect the contents of the stream into a collection, and then assert directly on that.
+ *
+ * <p>For very large or infinite streams you may want to first {@linkplain Stream#limit limit} the
+ * stream before asserting on it.
+ *
+ * <p>The statistics assertions, such as {@link #hasMeanWithin}, accumulate the values in a single
+ * pass without boxing them. If the wrapped stream was parallel, they accumulate parts of the values
+ * in parallel and then combine the results.
+ */
+public final class DoubleStreamSubject extends Subject<DoubleStreamSubject, DoubleStream> {
+
+  private final double[] actualArray;
+  private final List<?> actualList;
+  private final boolean parallel;
+
+  private DoubleStreamSubject(FailureMetadata failureMetadata, @NullableDecl DoubleStream stream) {
+    super(failureMetadata, stream);
+    this.parallel = stream != null && stream.isParallel();
+    this.actualArray = (stream == null) ? null : stream.toArray();
+    this.actualList = (stream == null) ? null : Doubles.asList(actualArray);
+  }
+
+  @Override
+  protected String actualCustomStringRepresentation() {
+    return String.valueOf(actualList);
+  }
+
+  public static Factory<DoubleStreamSubject, DoubleStream> doubleStreams() {
+    return DoubleStreamSubject::new;
+  }
+
+  /** Fails if the subject is not empty. */
+  public void isEmpty() {
+    check().that(actualList).isEmpty();
+  }
+
+  /** Fails if the subject is empty. */
+  public void isNotEmpty() {
+    check().that(actualList).isNotEmpty();
+  }
+
+  /**
+   * Fails if the subject does not have the given size.
+   *
+   * <p>If you'd like to check that your stream contains more than {@link Integer#MAX_VALUE}
+   * elements, use {@code assertThat(stream.count()).isEqualTo(...)}.
+   */
+  public void hasSize(int expectedSize) {
+    check().that(actualList).hasSize(expectedSize);
+  }
+
+  /** Fails if the subject does not contain the given element. */
+  public void contains(double element) {
+    check().that(actualList).contains(element);
+  }
+
+  /** Fails if the subject contains the given element. */
+  public void doesNotContain(double element) {
+    check().that(actualList).doesNotContain(element);
+  }
+
+  /** Fails if the subject contains duplicate elements. */
+  public void containsNoDuplicates() {
+    check().that(actualList).containsNoDuplicates();
+  }
+
+  /** Fails if the subject does not contain at least one of the given elements. */
+  public void containsAnyOf(double first, double second, double... rest) {
+    check().that(actualList).containsAnyOf(first, second, box(rest));
+  }
+
+  /** Fails if the subject does not contain at least one of the given elements. */
+  public void containsAnyIn(Iterable<?> expected) {
+    check().that(actualList).containsAnyIn(expected);
+  }
+
+  /**
+   * Fails if the subject does not contain all of the given elements. If an element appears more
+   * than once in the given elements, then it must appear at least that number of times in the
+   * actual elements.
+   *
+   * <p>To also test that the contents appear in the given order, make a call to {@code inOrder()}
+   * on the object returned by this method. The expected elements must appear in the given order
+   * within the actual elements, but they are not required to be consecutive.
+   */
+  @CanIgnoreReturnValue
+  public Ordered containsAllOf(double first, double second, double... rest) {
+    return check().that(actualList).containsAllOf(first, second, box(rest));
+  }
+
+  /**
+   * Fails if the subject does not contain all of the given elements. If an element appears more
+   * than once in the given elements, then it must appear at least that number of times in the
+   * actual elements.
+   *
+   * <p>To also test that the contents appear in the given order, make a call to {@code inOrder()}
+   * on the object returned by this method. The expected elements must appear in the given order
+   * within the actual elements, but they are not required to be consecutive.
+   */
+  @CanIgnoreReturnValue
+  public Ordered containsAllIn(Iterable<?> expected) {
+    return check().that(actualList).containsAllIn(expected);
+  }
+
+  /**
+   * Fails if the subject does not contain exactly the given elements.
+   *
+   * <p>Multiplicity is respected. For example, an object duplicated exactly 3 times in the
+   * parameters asserts that the object must likewise be duplicated exactly 3 times in the subject.
+   *
+   * <p>To also test that the contents appear in the given order, make a call to {@code inOrder()}
+   * on the object returned by this method.
+   */
+  @CanIgnoreReturnValue
+  public Ordered containsExactly(double... varargs) {
+    return check().that(actualList).containsExactly(box(varargs));
+  }
+
+  /**
+   * Fails if the subject does not contain exactly the given elements.
+   *
+   * <p>Multiplicity is respected. For example, an object duplicated exactly 3 times in the
+   * parameters asserts that the object must likewise be duplicated exactly 3 times in the subject.
+   *
+   * <p>To also test that the contents appear in the given order, make a call to {@code inOrder()}
+   * on the object returned by this method.
+   */
+  @CanIgnoreReturnValue
+  public Ordered containsExactlyElementsIn(Iterable<?> expected) {
+    return check().that(actualList).containsExactlyElementsIn(expected);
+  }
+
+  /**
+   * Fails if the subject contains any of the given elements. (Duplicates are irrelevant to this
+   * test, which fails if any of the actual elements equal any of the excluded.)
+   */
+  public void containsNoneOf(double first, double second, double... rest) {
+    check().that(actualList).containsNoneOf(first, second, box(rest));
+  }
+
+  /**
+   * Fails if the subject contains any of the given elements. (Duplicates are irrelevant to this
+   * test, which fails if any of the actual elements equal any of the excluded.)
+   */
+  public void containsNoneIn(Iterable<?> excluded) {
+    check().that(actualList).containsNoneIn(excluded);
+  }
+
+  /**
+   * Prepares for a check that the mean of the stream's values is a finite number within {@code
+   * tolerance} of an expected value that will be provided in the next call in the fluent chain.
+   * Fails if the stream is empty.
+   */
+  public DoubleSubject.TolerantDoubleComparison hasMeanWithin(double tolerance) {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "mean()", statistics.mean()).isWithin(tolerance);
+  }
+
+  /**
+   * Prepares for a check that the population standard deviation of the stream's values (the square
+   * root of their mean squared difference from their mean) is a finite number within {@code
+   * tolerance} of an expected value that will be provided in the next call in the fluent chain.
+   * Fails if the stream is empty.
+   */
+  public DoubleSubject.TolerantDoubleComparison hasStandardDeviationWithin(double tolerance) {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "standardDeviation()", statistics.standardDeviation())
+        .isWithin(tolerance);
+  }
+
+  /**
+   * Returns a subject for the smallest of the stream's values, which is NaN if any of them are.
+   * Fails if the stream is empty.
+   */
+  public DoubleSubject hasMinThat() {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "min()", statistics.min());
+  }
+
+  /**
+   * Returns a subject for the largest of the stream's values, which is NaN if any of them are.
+   * Fails if the stream is empty.
+   */
+  public DoubleSubject hasMaxThat() {
+    DoubleStatistics statistics = statistics();
+    return statistic(statistics, "max()", statistics.max());
+  }
+
+  /** Fails if any of the stream's values is NaN. */
+  public void hasNoNaNs() {
+    long nanCount = statistics().nanCount();
+    if (nanCount > 0) {
+      failWithActual(simpleFact("expected to contain no NaNs"), fact("number of NaNs", nanCount));
+    }
+  }
+
+  private DoubleStatistics statistics() {
+    DoubleStream values = Arrays.stream(checkNotNull(actualArray));
+    if (parallel) {
+      values = values.parallel();
+    }
+    return values.collect(
+        DoubleStatistics::new, DoubleStatistics::accept, DoubleStatistics::combine);
+  }
+
+  private DoubleSubject statistic(DoubleStatistics statistics, String name, double value) {
+    if (statistics.count() == 0) {
+      failWithActual(simpleFact("expected not to be empty"));
+      return ignoreCheck().that(value);
+    }
+    return check(name).that(value);
+  }
+
+  private static Object[] box(double[] rest) {
+    return DoubleStream.of(rest).boxed().toArray(Double[]::new);
+  }
+}
@@ -15,16 +15,296 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
-/** Assertions for {@link Path} instances. */
+/**
+ * Assertions for {@link Path} instances.
+ *
+ * <p>The content assertions, other than {@link #hasContentThat}, read the file incrementally, so
+ * they can be used on files too large to hold in memory.
+ */
 @GwtIncompatible
 public final class PathSubject extends Subject<PathSubject, Path> {
+  /**
+   * The size of the regions of a file which are read at a time. The files are read into reused
+   * buffers rather than memory-mapped, since mappings are released only when garbage-collected and,
+   * until then, hold on to address space and, on Windows, keep the files from being deleted.
+   */
+  private static final int READ_CHUNK_SIZE = 1 << 16;
+
+  /** The number of lines before a difference which are included in its diff. */
+  private static final int DIFF_CONTEXT_LINES = 3;
+
+  /**
+   * The number of lines after a difference which are diffed. This is more than the diff's own
+   * context, so that lines which realign after an insertion or deletion can be found.
+   */
+  private static final int DIFF_TRAILING_LINES = 20;
+
+  /**
+   * The maximum number of bytes of each file, before and after a difference, which are diffed. The
+   * window is cut at this many bytes even in the middle of a line, so that files with very long
+   * lines are not read into memory whole.
+   */
+  private static final int MAX_DIFF_BYTES = 4096;
+
   private PathSubject(FailureMetadata failureMetadata, Path actual) {
     super(failureMetadata, actual);
   }
 
+  /** Fails if the file does not have the given size, in bytes. */
+  public void hasSize(long expectedSize) {
+    if (actual() == null) {
+      failWithActual("expected a file with size", expectedSize);
+      return;
+    }
+    long size;
+    try {
+      size = Files.size(actual());
+    } catch (IOException e) {
+      failWithActual(fact("expected a file with size", expectedSize), readFailure(e));
+      return;
+    }
+    check("size()").that(size).isEqualTo(expectedSize);
+  }
+
+  /**
+   * Fails if the file does not contain exactly the same bytes as {@code expected}.
+   *
+   * <p>The files are compared a region at a time, through reused buffers. On failure, the offset
+   * and line of the first differing byte are reported, along with a diff of the lines around it.
+   */
+  public void hasSameContentAs(Path expected) {
+    if (actual() == null) {
+      failWithActual("expected a file with the same content as", expected);
+      return;
+    }
+    try (FileChannel actualChannel = FileChannel.open(actual(), StandardOpenOption.READ);
+        FileChannel expectedChannel = FileChannel.open(expected, StandardOpenOption.READ)) {
+      ByteBuffer actualBuffer = ByteBuffer.allocateDirect(READ_CHUNK_SIZE);
+      ByteBuffer expectedBuffer = ByteBuffer.allocateDirect(READ_CHUNK_SIZE);
+      long offset = mismatch(actualChannel, expectedChannel, actualBuffer, expectedBuffer);
+      if (offset < 0) {
+        return;
+      }
+      long actualSize = actualChannel.size();
+      long expectedSize = expectedChannel.size();
+      List<Fact> facts = new ArrayList<>();
+      facts.add(fact("expected to have the same content as", expected));
+      facts.add(fact("but differed at byte offset", offset));
+      long[] lineStarts =
+          precedingLineStarts(actualChannel, offset, DIFF_CONTEXT_LINES + 1, actualBuffer);
+      facts.add(fact("which is on line", lineStarts[0]));
+      if (actualSize != expectedSize) {
+        facts.add(fact("expected size", expectedSize));
+        facts.add(fact("actual size", actualSize));
+      }
+      long windowStart = Math.max(lineStarts[1], offset - MAX_DIFF_BYTES);
+      String expectedWindow = window(expectedChannel, windowStart, offset);
+      String actualWindow = window(actualChannel, windowStart, offset);
+      ImmutableList<Fact> diff = Platform.makeDiff(expectedWindow, actualWindow);
+      if (diff != null) {
+        facts.addAll(diff);
+      } else {
+        // The diff would be longer than the lines themselves, so show them instead.
+        facts.add(fact("expected lines", expectedWindow));
+        facts.add(fact("actual lines", actualWindow));
+      }
+      failWithActual(facts.get(0), facts.subList(1, facts.size()).toArray(new Fact[0]));
+    } catch (IOException e) {
+      failWithActual(fact("expected a file with the same content as", expected), readFailure(e));
+    }
+  }
+
+  /**
+   * Fails if the file, decoded as UTF-8, does not have the same lines as {@code expected}. Line
+   * terminators are not compared.
+   *
+   * <p>The files are read and diffed incrementally, so this is suitable for large golden files. On
+   * failure, the differences are reported as a unified diff.
+   */
+  public void hasSameLinesAs(Path expected) {
+    if (actual() == null) {
+      failWithActual("expected a file with the same lines as", expected);
+      return;
+    }
+    ImmutableList<Fact> diff;
+    try (BufferedReader expectedReader = Files.newBufferedReader(expected, UTF_8);
+        BufferedReader actualReader = Files.newBufferedReader(actual(), UTF_8)) {
+      diff = StreamingLineDiff.diff(expectedReader, actualReader);
+    } catch (IOException e) {
+      failWithActual(fact("expected a file with the same lines as", expected), readFailure(e));
+      return;
+    }
+    if (!diff.isEmpty()) {
+      failWithActual(
+          fact("expected to have the same lines as", expected), diff.toArray(new Fact[0]));
+    }
+  }
+
+  /**
+   * Returns a {@code StringSubject} for the file's content, decoded as UTF-8.
+   *
+   * <p>This reads the whole file into memory. For large files, prefer {@link #hasSameContentAs}
+   * or {@link #containsLine}.
+   */
+  public StringSubject hasContentThat() {
+    String content = null;
+    if (actual() != null) {
+      try {
+        content = new String(Files.readAllBytes(actual()), UTF_8);
+      } catch (IOException e) {
+        failWithActual(simpleFact("expected a readable file"), readFailure(e));
+        // The read failure has been reported, so don't fail again on assertions about the content.
+        return ignoreCheck().that("");
+      }
+    }
+    return check("content").that(content);
+  }
+
+  /**
+   * Fails if no line of the file, decoded as UTF-8, is equal to {@code expected}. Lines are
+   * terminated by {@code \n}, {@code \r} or {@code \r\n}, and are read one at a time.
+   */
+  public void containsLine(String expected) {
+    if (actual() == null) {
+      failWithActual("expected a file containing line", expected);
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(actual(), UTF_8)) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (line.equals(expected)) {
+          return;
+        }
+      }
+    } catch (IOException e) {
+      failWithActual(fact("expected a file containing line", expected), readFailure(e));
+      return;
+    }
+    failWithActual("expected to contain line", expected);
+  }
+
+  private static Fact readFailure(IOException e) {
+    return fact("but could not be read", e);
+  }
+
+  /**
+   * Returns the offset of the first byte at which the files differ, or -1 if they are identical. If
+   * one file is a prefix of the other, the offset is the length of the shorter one.
+   */
+  private static long mismatch(FileChannel a, FileChannel b, ByteBuffer bufferA, ByteBuffer bufferB)
+      throws IOException {
+    long sizeA = a.size();
+    long sizeB = b.size();
+    long commonSize = Math.min(sizeA, sizeB);
+    for (long position = 0; position < commonSize; position += READ_CHUNK_SIZE) {
+      int length = (int) Math.min(READ_CHUNK_SIZE, commonSize - position);
+      read(a, position, length, bufferA);
+      read(b, position, length, bufferB);
+      int index = mismatch(bufferA, bufferB, length);
+      if (index >= 0) {
+        return position + index;
+      }
+    }
+    return sizeA == sizeB ? -1 : commonSize;
+  }
+
+  // Returns the index of the first differing byte among the first 'length' bytes, or -1.
+  private static int mismatch(ByteBuffer a, ByteBuffer b, int length) {
+    int i = 0;
+    // Compare a word at a time, and then find the differing byte within the word, if any.
+    for (; i + Long.BYTES <= length; i += Long.BYTES) {
+      if (a.getLong(i) != b.getLong(i)) {
+        break;
+      }
+    }
+    for (; i < length; i++) {
+      if (a.get(i) != b.get(i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Scans the file up to {@code offset}, and returns the 1-based number of the line containing it,
+   * followed by the offset at which the line {@code lineCount - 1} lines earlier starts, or 0 if
+   * there is no such line. {@code lineCount} must be at least 2. The file is read through {@code
+   * buffer}.
+   */
+  private static long[] precedingLineStarts(
+      FileChannel channel, long offset, int lineCount, ByteBuffer buffer) throws IOException {
+    // The most recent line starts, as a ring buffer.
+    long[] starts = new long[lineCount];
+    int next = 1;
+    long lineNumber = 1;
+    for (long position = 0; position < offset; position += buffer.capacity()) {
+      int length = (int) Math.min(buffer.capacity(), offset - position);
+      read(channel, position, length, buffer);
+      for (int i = 0; i < length; i++) {
+        if (buffer.get(i) == '\n') {
+          lineNumber++;
+          starts[next] = position + i + 1;
+          next = (next + 1) % lineCount;
+        }
+      }
+    }
+    long earliest = lineNumber >= lineCount ? starts[next] : 0;
+    return new long[] {lineNumber, earliest};
+  }
+
+  /**
+   * Returns the bytes from {@code start} to the end of the line containing {@code offset}, plus up
+   * to {@value #DIFF_TRAILING_LINES} more lines, decoded as UTF-8. At most {@value #MAX_DIFF_BYTES}
+   * bytes after {@code offset} are read, and {@code start} must be no more than that before it.
+   */
+  private static String window(FileChannel channel, long start, long offset) throws IOException {
+    long end = Math.min(channel.size(), offset + MAX_DIFF_BYTES);
+    ByteBuffer region = ByteBuffer.allocate((int) (end - start));
+    read(channel, start, region.capacity(), region);
+    int length = (int) (offset - start);
+    int newlines = 0;
+    while (length < region.limit() && newlines <= DIFF_TRAILING_LINES) {
+      if (region.get(length++) == '\n') {
+        newlines++;
+      }
+    }
+    byte[] bytes = new byte[length];
+    region.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  /**
+   * Reads {@code length} bytes of the file, from {@code position}, into {@code buffer}, replacing
+   * its contents. The bytes are then at indexes 0 to {@code length} of the buffer.
+   */
+  private static void read(FileChannel channel, long position, int length, ByteBuffer buffer)
+      throws IOException {
+    buffer.clear();
+    buffer.limit(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("file was truncated while being read");
+      }
+    }
+    buffer.flip();
+  }
+
   public static Subject.Factory<PathSubject, Path> paths() {
     return PathSubject::new;
   }
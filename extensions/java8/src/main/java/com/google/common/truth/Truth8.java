@@ -23,6 +23,7 @@ import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
@@ -65,7 +66,9 @@ public final class Truth8 {
     return assertAbout(LongStreamSubject.longStreams()).that(target);
   }
 
-  // TODO(b/64757353): Add support for DoubleStream?
+  public static DoubleStreamSubject assertThat(@NullableDecl DoubleStream target) {
+    return assertAbout(DoubleStreamSubject.doubleStreams()).that(target);
+  }
 
   // Not actually a Java 8 feature, but for now this is the best option since core Truth still has
   // to support Java environments without java.nio.file such as Android and J2CL.
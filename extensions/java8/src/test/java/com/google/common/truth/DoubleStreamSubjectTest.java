@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.DoubleStreamSubject.doubleStreams;
+import static com.google.common.truth.FailureAssertions.assertFailureKeys;
+import static com.google.common.truth.FailureAssertions.assertFailureValue;
+import static com.google.common.truth.Truth8.assertThat;
+import static java.util.Arrays.asList;
+
+import java.util.stream.DoubleStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for Java 8 {@link DoubleStream} Subjects. */
+@RunWith(JUnit4.class)
+public final class DoubleStreamSubjectTest {
+
+  @Test
+  public void testIsEmpty() throws Exception {
+    assertThat(DoubleStream.of()).isEmpty();
+  }
+
+  @Test
+  public void testHasSize() throws Exception {
+    assertThat(DoubleStream.of(4.2, 4.3)).hasSize(2);
+  }
+
+  @Test
+  public void testContains() throws Exception {
+    assertThat(DoubleStream.of(4.2)).contains(4.2);
+  }
+
+  @Test
+  public void testContains_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(whenTesting -> whenTesting.that(DoubleStream.of(4.2)).contains(10.0));
+  }
+
+  @Test
+  public void testContainsExactly_inOrder() throws Exception {
+    assertThat(DoubleStream.of(1, 2, 3)).containsExactly(1, 2, 3).inOrder();
+    assertThat(DoubleStream.of(1, 2, 3)).containsExactlyElementsIn(asList(3.0, 2.0, 1.0));
+  }
+
+  @Test
+  public void testStatistics() throws Exception {
+    assertThat(DoubleStream.of(2, 4, 4, 4, 5, 5, 7, 9)).hasMeanWithin(0).of(5);
+    assertThat(DoubleStream.of(2, 4, 4, 4, 5, 5, 7, 9)).hasStandardDeviationWithin(0).of(2);
+    assertThat(DoubleStream.of(2, 4, 4, 4, 5, 5, 7, 9)).hasMinThat().isEqualTo(2.0);
+    assertThat(DoubleStream.of(2, 4, 4, 4, 5, 5, 7, 9)).hasMaxThat().isEqualTo(9.0);
+    assertThat(DoubleStream.of(2, 4, 4, 4, 5, 5, 7, 9)).hasNoNaNs();
+  }
+
+  @Test
+  public void testStatistics_parallel() throws Exception {
+    // The values 1 through n have mean (n + 1) / 2 and variance (n * n - 1) / 12.
+    int n = 100_000;
+    double offset = 1e9;
+    assertThat(DoubleStream.iterate(offset + 1, x -> x + 1).limit(n).parallel())
+        .hasMeanWithin(0)
+        .of(offset + (n + 1) / 2.0);
+    assertThat(DoubleStream.iterate(offset + 1, x -> x + 1).limit(n).parallel())
+        .hasStandardDeviationWithin(1e-6)
+        .of(Math.sqrt(((double) n * n - 1) / 12));
+    assertThat(DoubleStream.iterate(offset + 1, x -> x + 1).limit(n).parallel())
+        .hasMaxThat()
+        .isEqualTo(offset + n);
+  }
+
+  @Test
+  public void testHasMeanWithin_fails() throws Exception {
+    AssertionError expected =
+        expectFailure(
+            whenTesting -> whenTesting.that(DoubleStream.of(1, 2, 3)).hasMeanWithin(0.5).of(3));
+    assertFailureKeys(
+        expected, "value of", "expected", "but was", "outside tolerance", "doubleStream was");
+    assertFailureValue(expected, "value of", "doubleStream.mean()");
+  }
+
+  @Test
+  public void testHasMinThat_empty_fails() throws Exception {
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(DoubleStream.of()).hasMinThat().isZero());
+    assertFailureKeys(expected, "expected not to be empty", "but was");
+  }
+
+  @Test
+  public void testHasNoNaNs_fails() throws Exception {
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(DoubleStream.of(1, Double.NaN)).hasNoNaNs());
+    assertFailureKeys(expected, "expected to contain no NaNs", "number of NaNs", "but was");
+    assertFailureValue(expected, "number of NaNs", "1");
+  }
+
+  private static AssertionError expectFailure(
+      ExpectFailure.SimpleSubjectBuilderCallback<DoubleStreamSubject, DoubleStream>
+          assertionCallback) {
+    return ExpectFailure.expectFailureAbout(doubleStreams(), assertionCallback);
+  }
+}
@@ -15,17 +15,203 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.truth.ExpectFailure.assertThat;
+import static com.google.common.truth.PathSubject.paths;
 import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 @RunWith(JUnit4.class)
 public class PathSubjectTest {
+  @Rule public final TemporaryFolder tmp = new TemporaryFolder();
+
   @Test
   public void basicEquality() {
     assertThat(Paths.get("foo")).isEqualTo(Paths.get("foo"));
   }
+
+  @Test
+  public void hasSize() throws IOException {
+    assertThat(file("hello")).hasSize(5);
+  }
+
+  @Test
+  public void hasSizeFailing() throws IOException {
+    Path file = file("hello");
+    AssertionError expected = expectFailure(whenTesting -> whenTesting.that(file).hasSize(4));
+    assertThat(expected).factValue("value of").isEqualTo("path.size()");
+  }
+
+  @Test
+  public void hasSameContentAs() throws IOException {
+    String content = "one\ntwo\nthree, which is longer than a word\n";
+    assertThat(file(content)).hasSameContentAs(file(content));
+    assertThat(file("")).hasSameContentAs(file(""));
+  }
+
+  @Test
+  public void hasSameContentAsFailing() throws IOException {
+    String end = lines("sixth", "seventh", "eighth", "ninth", "tenth", "eleventh", "twelfth");
+    Path actual = file(lines("first", "second", "third", "fourth", "fifth") + end);
+    Path other = file(lines("first", "second", "third", "fourth", "FIFTH") + end);
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(other));
+    assertThat(expected)
+        .factKeys()
+        .containsExactly(
+            "expected to have the same content as",
+            "but differed at byte offset",
+            "which is on line",
+            "diff",
+            "but was")
+        .inOrder();
+    assertThat(expected).factValue("but differed at byte offset").isEqualTo("26");
+    assertThat(expected).factValue("which is on line").isEqualTo("5");
+    assertThat(expected).factValue("diff").contains("-FIFTH");
+    assertThat(expected).factValue("diff").contains("+fifth");
+    // Only the lines around the difference are diffed.
+    assertThat(expected).factValue("diff").doesNotContain("first");
+  }
+
+  @Test
+  public void hasSameContentAsFailing_shortLines() throws IOException {
+    Path actual = file("a\nb\n");
+    Path other = file("a\nc\n");
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(other));
+    assertThat(expected).factValue("expected lines").isEqualTo("a\nc\n");
+    assertThat(expected).factValue("actual lines").isEqualTo("a\nb\n");
+  }
+
+  @Test
+  public void hasSameContentAsFailing_prefix() throws IOException {
+    Path actual = file("0123456789abcdef");
+    Path other = file("0123456789abcdefg");
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(other));
+    assertThat(expected).factValue("but differed at byte offset").isEqualTo("16");
+    assertThat(expected).factValue("which is on line").isEqualTo("1");
+    assertThat(expected).factValue("expected size").isEqualTo("17");
+    assertThat(expected).factValue("actual size").isEqualTo("16");
+  }
+
+  @Test
+  public void hasSameContentAsFailing_longLine() throws IOException {
+    String prefix = Strings.repeat("a", 100_000);
+    String suffix = Strings.repeat("z", 100_000);
+    Path actual = file(prefix + "b" + suffix);
+    Path other = file(prefix + "c" + suffix);
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(other));
+    assertThat(expected).factValue("but differed at byte offset").isEqualTo("100000");
+    assertThat(expected).factValue("which is on line").isEqualTo("1");
+    // Only a bounded window on either side of the difference is diffed.
+    Truth.assertThat(expected.getMessage().length()).isLessThan(20_000);
+  }
+
+  @Test
+  public void hasSameContentAsFailing_afterManyLines() throws IOException {
+    // Long enough that the files are read in more than one chunk.
+    String prefix = Strings.repeat("0123456789\n", 10_000);
+    Path actual = file(prefix + "a\n");
+    Path other = file(prefix + "b\n");
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(other));
+    assertThat(expected).factValue("but differed at byte offset").isEqualTo("110000");
+    assertThat(expected).factValue("which is on line").isEqualTo("10001");
+    assertThat(expected)
+        .factValue("expected lines")
+        .isEqualTo(Strings.repeat("0123456789\n", 3) + "b\n");
+  }
+
+  @Test
+  public void hasSameContentAsFailing_missingFile() throws IOException {
+    Path actual = file("a");
+    Path other = tmp.getRoot().toPath().resolve("missing");
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(other));
+    assertThat(expected)
+        .factKeys()
+        .containsExactly(
+            "expected a file with the same content as", "but could not be read", "but was")
+        .inOrder();
+  }
+
+  @Test
+  public void hasSameLinesAs() throws IOException {
+    assertThat(file("one\r\ntwo\n")).hasSameLinesAs(file("one\ntwo"));
+  }
+
+  @Test
+  public void hasSameLinesAsFailing() throws IOException {
+    Path actual = file(lines("first", "second", "third", "fourth", "fifth", "sixth"));
+    Path other = file(lines("first", "second", "third", "fourth", "FIFTH", "sixth"));
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameLinesAs(other));
+    assertThat(expected)
+        .factKeys()
+        .containsExactly("expected to have the same lines as", "diff", "but was")
+        .inOrder();
+    assertThat(expected)
+        .factValue("diff")
+        .isEqualTo("@@ -2,5 +2,5 @@\n second\n third\n fourth\n-FIFTH\n+fifth\n sixth");
+  }
+
+  @Test
+  public void hasContentThat() throws IOException {
+    assertThat(file("café")).hasContentThat().isEqualTo("café");
+  }
+
+  @Test
+  public void hasContentThatFailing_missingFile() {
+    Path missing = tmp.getRoot().toPath().resolve("missing");
+    AssertionError expected =
+        expectFailure(
+            whenTesting -> whenTesting.that(missing).hasContentThat().isEqualTo("content"));
+    assertThat(expected)
+        .factKeys()
+        .containsExactly("expected a readable file", "but could not be read", "but was")
+        .inOrder();
+  }
+
+  @Test
+  public void containsLine() throws IOException {
+    Path file = file("one\r\ntwo\rthree\nfour");
+    assertThat(file).containsLine("two");
+    assertThat(file).containsLine("three");
+    assertThat(file).containsLine("four");
+  }
+
+  @Test
+  public void containsLineFailing() throws IOException {
+    Path file = file("one\ntwo three\n");
+    AssertionError expected =
+        expectFailure(whenTesting -> whenTesting.that(file).containsLine("two"));
+    assertThat(expected).factValue("expected to contain line").isEqualTo("two");
+  }
+
+  private static String lines(String... lines) {
+    return String.join("\n", lines) + "\n";
+  }
+
+  private Path file(String content) throws IOException {
+    Path file = tmp.newFile().toPath();
+    Files.write(file, content.getBytes(UTF_8));
+    return file;
+  }
+
+  private static AssertionError expectFailure(
+      ExpectFailure.SimpleSubjectBuilderCallback<PathSubject, Path> assertionCallback) {
+    return ExpectFailure.expectFailureAbout(paths(), assertionCallback);
+  }
 }
@@ -20,11 +20,14 @@ import static com.google.common.base.Strings.lenientFormat;
 import static com.google.common.truth.Fact.simpleFact;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.truth.Fact;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.IntegerSubject;
 import com.google.common.truth.Subject;
 import com.google.common.truth.Truth;
 import com.google.errorprone.annotations.CheckReturnValue;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
@@ -94,6 +97,10 @@ public class LiteProtoSubject<S extends LiteProtoSubject<S, M>, M extends Messag
   /**
    * Checks whether the MessageLite is equivalent to the argument, using the standard equals()
    * implementation.
+   *
+   * <p>If the messages are of the same type but differ, the failure message shows a diff of their
+   * string representations or, for large messages, lists the differing fields by field number, as
+   * found by comparing their serialized forms.
    */
   @Override
   public void isEqualTo(@NullableDecl Object expected) {
@@ -113,19 +120,63 @@ public class LiteProtoSubject<S extends LiteProtoSubject<S, M>, M extends Messag
                   actual().getClass().getName(),
                   internalCustomName() != null ? internalCustomName() + " (proto)" : "proto",
                   expected.getClass().getName())));
-    } else {
-      /*
-       * TODO(cpovirk): If we someday let subjects override formatActualOrExpected(), change this
-       * class to do so, and make this code path always delegate to super.isEqualTo().
-       */
-      String ourString = getTrimmedToString(actual());
-      String theirString = getTrimmedToString((MessageLite) expected);
-      if (!ourString.equals(theirString)) {
-        check().that(ourString).isEqualTo(theirString); // fails
-      } else {
-        // This will include the Object.toString() headers.
-        super.isEqualTo(expected);
+    } else if (isLargerThanTextDiffLimit(actual(), (MessageLite) expected)) {
+      // Describe the differences between the serialized forms, if there are any. This is much
+      // cheaper than generating and diffing the string representations of large messages.
+      ImmutableList<Fact> wireFormatDifferences =
+          wireFormatDifferences(actual(), (MessageLite) expected);
+      if (!wireFormatDifferences.isEmpty()) {
+        failWithoutActual(
+            simpleFact(
+                lenientFormat(
+                    "Not true that %s is equal to the expected proto. "
+                        + "Their serialized forms differ, by field number:",
+                    internalCustomName() != null ? internalCustomName() + " (proto)" : "proto")),
+            wireFormatDifferences.toArray(new Fact[0]));
+        return;
       }
+      failWithTextDiff((MessageLite) expected);
+    } else {
+      failWithTextDiff((MessageLite) expected);
+    }
+  }
+
+  private void failWithTextDiff(MessageLite expected) {
+    /*
+     * TODO(cpovirk): If we someday let subjects override formatActualOrExpected(), change this
+     * class to do so, and make this code path always delegate to super.isEqualTo().
+     */
+    String ourString = getTrimmedToString(actual());
+    String theirString = getTrimmedToString(expected);
+    if (!ourString.equals(theirString)) {
+      check().that(ourString).isEqualTo(theirString); // fails
+    } else {
+      // This will include the Object.toString() headers.
+      super.isEqualTo(expected);
+    }
+  }
+
+  /**
+   * The serialized size, in bytes, beyond which messages are compared by their serialized forms
+   * rather than by diffing their string representations.
+   */
+  private static final int MAX_TEXT_DIFF_SERIALIZED_SIZE = 16 * 1024;
+
+  private static boolean isLargerThanTextDiffLimit(MessageLite actual, MessageLite expected) {
+    return actual.getSerializedSize() > MAX_TEXT_DIFF_SERIALIZED_SIZE
+        || expected.getSerializedSize() > MAX_TEXT_DIFF_SERIALIZED_SIZE;
+  }
+
+  // Returns facts describing how the serialized forms of the two messages differ, or an empty list
+  // if they are the same (or, impossibly, can't be parsed back).
+  private static ImmutableList<Fact> wireFormatDifferences(
+      MessageLite actual, MessageLite expected) {
+    try {
+      return WireFormatTree.differences(
+          WireFormatTree.parse(actual.toByteString()),
+          WireFormatTree.parse(expected.toByteString()));
+    } catch (InvalidProtocolBufferException e) {
+      return ImmutableList.of();
     }
   }
 
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Fact.fact;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedLongs;
+import com.google.common.truth.Fact;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * A descriptor-free view of a serialized {@link com.google.protobuf.MessageLite}: the encoded
+ * values of each field number, as spans of its wire format.
+ *
+ * <p>Lite messages have no descriptors, so this is the most structure we can recover from them.
+ * {@link LiteProtoSubject} uses it to describe how two messages differ without generating their
+ * string representations, which are reflective and can be very large.
+ */
+final class WireFormatTree {
+
+  /** The maximum number of differing fields reported by {@link #differences}. */
+  private static final int MAX_REPORTED_DIFFERENCES = 20;
+
+  /** Each difference is reported as a field, an expected value and an actual value. */
+  private static final int FACTS_PER_DIFFERENCE = 3;
+
+  /** Rendered values longer than this are truncated. */
+  private static final int MAX_VALUE_LENGTH = 500;
+
+  private static final String ABSENT = "<absent>";
+
+  /** A single encoded value of a field, excluding its tag. */
+  private static final class Value {
+    final int wireType;
+    final ByteString bytes;
+
+    Value(int wireType, ByteString bytes) {
+      this.wireType = wireType;
+      this.bytes = bytes;
+    }
+
+    // Parses this value as a nested message, if it is a group or a length-delimited value which
+    // happens to be a well-formed message. Returns null otherwise.
+    @NullableDecl
+    WireFormatTree asMessage() {
+      if (wireType == WireFormat.WIRETYPE_START_GROUP) {
+        return tryParse(bytes, /* inGroup = */ true);
+      } else if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED && !bytes.isEmpty()) {
+        return tryParse(bytes, /* inGroup = */ false);
+      }
+      return null;
+    }
+
+    @Override
+    public boolean equals(@NullableDecl Object o) {
+      if (o instanceof Value) {
+        Value that = (Value) o;
+        return wireType == that.wireType && bytes.equals(that.bytes);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * wireType + bytes.hashCode();
+    }
+  }
+
+  private final SortedMap<Integer, List<Value>> fields;
+
+  private WireFormatTree(SortedMap<Integer, List<Value>> fields) {
+    this.fields = fields;
+  }
+
+  /** Parses the given serialized message, which must be well-formed. */
+  static WireFormatTree parse(ByteString bytes) throws InvalidProtocolBufferException {
+    return parse(bytes, /* inGroup = */ false);
+  }
+
+  @NullableDecl
+  private static WireFormatTree tryParse(ByteString bytes, boolean inGroup) {
+    try {
+      return parse(bytes, inGroup);
+    } catch (InvalidProtocolBufferException e) {
+      return null;
+    }
+  }
+
+  // If 'inGroup' is set, 'bytes' are the contents of a group followed by its END_GROUP tag.
+  private static WireFormatTree parse(ByteString bytes, boolean inGroup)
+      throws InvalidProtocolBufferException {
+    SortedMap<Integer, List<Value>> fields = Maps.newTreeMap();
+    CodedInputStream input = bytes.newCodedInput();
+    try {
+      while (true) {
+        int tag = input.readTag();
+        if (tag == 0) {
+          if (inGroup) {
+            throw new InvalidProtocolBufferException("Group is missing its END_GROUP tag.");
+          }
+          break;
+        }
+        int fieldNumber = tag >>> 3;
+        int wireType = tag & 7;
+        if (wireType == WireFormat.WIRETYPE_END_GROUP) {
+          if (!inGroup || !input.isAtEnd()) {
+            throw new InvalidProtocolBufferException("Unexpected END_GROUP tag.");
+          }
+          break;
+        }
+
+        int start;
+        switch (wireType) {
+          case WireFormat.WIRETYPE_VARINT:
+            start = input.getTotalBytesRead();
+            input.readRawVarint64();
+            break;
+          case WireFormat.WIRETYPE_FIXED64:
+            start = input.getTotalBytesRead();
+            input.skipRawBytes(8);
+            break;
+          case WireFormat.WIRETYPE_FIXED32:
+            start = input.getTotalBytesRead();
+            input.skipRawBytes(4);
+            break;
+          case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+            int length = input.readRawVarint32();
+            start = input.getTotalBytesRead();
+            input.skipRawBytes(length);
+            break;
+          case WireFormat.WIRETYPE_START_GROUP:
+            // The span keeps the END_GROUP tag, so that the group can be parsed on its own.
+            start = input.getTotalBytesRead();
+            input.skipField(tag);
+            break;
+          default:
+            throw new InvalidProtocolBufferException("Invalid wire type: " + wireType);
+        }
+
+        List<Value> values = fields.get(fieldNumber);
+        if (values == null) {
+          values = new ArrayList<>(1);
+          fields.put(fieldNumber, values);
+        }
+        values.add(new Value(wireType, bytes.substring(start, input.getTotalBytesRead())));
+      }
+    } catch (InvalidProtocolBufferException e) {
+      throw e;
+    } catch (IOException e) {
+      // CodedInputStreams over a ByteString throw only InvalidProtocolBufferExceptions.
+      throw new AssertionError(e);
+    }
+    return new WireFormatTree(fields);
+  }
+
+  /**
+   * Returns facts describing each field number, or nested field number path, whose encoded values
+   * differ between {@code actual} and {@code expected}: a {@code field} fact with the path,
+   * followed by {@code expected} and {@code but was} facts with the values. Values which are
+   * themselves well-formed messages are compared recursively.
+   *
+   * <p>At most {@value #MAX_REPORTED_DIFFERENCES} differences are described, followed by a count of
+   * the omitted ones. Returns an empty list if the encodings are identical.
+   */
+  static ImmutableList<Fact> differences(WireFormatTree actual, WireFormatTree expected) {
+    List<Fact> differences = new ArrayList<>();
+    int count = addDifferences(actual, expected, "", differences);
+    if (count > MAX_REPORTED_DIFFERENCES) {
+      differences.add(fact("additional differences omitted", count - MAX_REPORTED_DIFFERENCES));
+    }
+    return ImmutableList.copyOf(differences);
+  }
+
+  // Adds facts describing differences to 'out', up to the limit, and returns the total number of
+  // differences found.
+  private static int addDifferences(
+      WireFormatTree actual, WireFormatTree expected, String pathPrefix, List<Fact> out) {
+    int count = 0;
+    for (int fieldNumber : Sets.union(actual.fields.keySet(), expected.fields.keySet())) {
+      List<Value> actualValues = actual.values(fieldNumber);
+      List<Value> expectedValues = expected.values(fieldNumber);
+      if (actualValues.equals(expectedValues)) {
+        continue;
+      }
+
+      String path = pathPrefix + fieldNumber;
+      if (actualValues.size() == 1 && expectedValues.size() == 1) {
+        @NullableDecl WireFormatTree actualMessage = actualValues.get(0).asMessage();
+        @NullableDecl WireFormatTree expectedMessage = expectedValues.get(0).asMessage();
+        if (actualMessage != null && expectedMessage != null) {
+          int nestedCount = addDifferences(actualMessage, expectedMessage, path + ".", out);
+          if (nestedCount > 0) {
+            count += nestedCount;
+            continue;
+          }
+        }
+      }
+
+      count++;
+      if (out.size() < MAX_REPORTED_DIFFERENCES * FACTS_PER_DIFFERENCE) {
+        out.add(fact("field", path));
+        out.add(fact("expected", render(expectedValues)));
+        out.add(fact("but was", render(actualValues)));
+      }
+    }
+    return count;
+  }
+
+  private List<Value> values(int fieldNumber) {
+    List<Value> values = fields.get(fieldNumber);
+    return values == null ? Collections.<Value>emptyList() : values;
+  }
+
+  private static String render(List<Value> values) {
+    if (values.isEmpty()) {
+      return ABSENT;
+    }
+    StringBuilder sb = new StringBuilder();
+    if (values.size() == 1) {
+      appendValue(values.get(0), sb);
+    } else {
+      sb.append('[');
+      for (int i = 0; i < values.size() && sb.length() <= MAX_VALUE_LENGTH; i++) {
+        if (i > 0) {
+          sb.append(", ");
+        }
+        appendValue(values.get(i), sb);
+      }
+      sb.append(']');
+    }
+    return truncate(sb);
+  }
+
+  // Appends a value in the same notation that TextFormat uses for unknown fields.
+  private static void appendValue(Value value, StringBuilder sb) {
+    try {
+      switch (value.wireType) {
+        case WireFormat.WIRETYPE_VARINT:
+          sb.append(UnsignedLongs.toString(value.bytes.newCodedInput().readRawVarint64()));
+          return;
+        case WireFormat.WIRETYPE_FIXED32:
+          sb.append(
+              String.format("0x%08x", value.bytes.newCodedInput().readRawLittleEndian32()));
+          return;
+        case WireFormat.WIRETYPE_FIXED64:
+          sb.append(
+              String.format("0x%016x", value.bytes.newCodedInput().readRawLittleEndian64()));
+          return;
+        default:
+          @NullableDecl WireFormatTree message = value.asMessage();
+          if (message != null) {
+            message.appendTo(sb);
+          } else {
+            appendEscaped(value.bytes, sb);
+          }
+      }
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+  }
+
+  private void appendTo(StringBuilder sb) {
+    sb.append('{');
+    for (int fieldNumber : fields.keySet()) {
+      for (Value value : fields.get(fieldNumber)) {
+        if (sb.length() > MAX_VALUE_LENGTH) {
+          return;
+        }
+        sb.append(' ').append(fieldNumber).append(": ");
+        appendValue(value, sb);
+      }
+    }
+    sb.append(" }");
+  }
+
+  // Escapes bytes the same way as TextFormat.escapeBytes, which isn't in the Lite runtime.
+  private static void appendEscaped(ByteString bytes, StringBuilder sb) {
+    sb.append('"');
+    for (int i = 0; i < bytes.size() && sb.length() <= MAX_VALUE_LENGTH; i++) {
+      int b = bytes.byteAt(i) & 0xff;
+      switch (b) {
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        default:
+          if (b >= 0x20 && b < 0x7f) {
+            sb.append((char) b);
+          } else {
+            sb.append('\\');
+            sb.append((char) ('0' + ((b >>> 6) & 3)));
+            sb.append((char) ('0' + ((b >>> 3) & 7)));
+            sb.append((char) ('0' + (b & 7)));
+          }
+      }
+    }
+    sb.append('"');
+  }
+
+  private static String truncate(StringBuilder sb) {
+    if (sb.length() <= MAX_VALUE_LENGTH) {
+      return sb.toString();
+    }
+    return sb.substring(0, MAX_VALUE_LENGTH) + "...";
+  }
+}
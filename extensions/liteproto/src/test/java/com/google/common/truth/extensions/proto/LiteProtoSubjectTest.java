@@ -21,9 +21,12 @@ import static org.junit.Assert.fail;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Optional;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.truth.Expect;
 import com.google.common.truth.Subject;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.MessageLite;
 import java.util.Arrays;
 import java.util.Collection;
@@ -204,6 +207,59 @@ public class LiteProtoSubjectTest {
     }
   }
 
+  @Test
+  public void testIsEqualTo_largeMessages_failureReportsFieldNumbers() throws Exception {
+    String padding = Strings.repeat(".", 20000);
+    MessageLite large = withSubMessageString(config.nonEmptyMessage(), "a" + padding);
+    try {
+      assertThat(large).isEqualTo(config.nonEmptyMessage());
+      fail("Should have failed.");
+    } catch (AssertionError e) {
+      assertThat(e).factValue("field").isEqualTo("2");
+      assertThat(e).factValue("expected").isEqualTo("<absent>");
+      assertThat(e).factValue("but was").startsWith("{ 1: \"a...");
+    }
+
+    MessageLite otherLarge = withSubMessageString(config.nonEmptyMessage(), "b" + padding);
+    try {
+      assertThat(large).isEqualTo(otherLarge);
+      fail("Should have failed.");
+    } catch (AssertionError e) {
+      assertThat(e).factKeys().containsNoneOf("field 1", "field 2");
+      assertThat(e).factValue("field").isEqualTo("2.1");
+      assertThat(e).factValue("expected").startsWith("\"b...");
+      assertThat(e).factValue("but was").startsWith("\"a...");
+    }
+  }
+
+  @Test
+  public void testIsEqualTo_smallMessages_failureShowsTextDiff() throws Exception {
+    MessageLite otherSubMessageValue = withSubMessageString(config.nonEmptyMessage(), "bar");
+    try {
+      assertThat(config.nonEmptyMessageOfOtherValue()).isEqualTo(otherSubMessageValue);
+      fail("Should have failed.");
+    } catch (AssertionError e) {
+      assertThat(e).factKeys().doesNotContain("field");
+      expectRegex(e, ".*expected:.*\"bar\".*");
+    }
+  }
+
+  // Merges sub_message { optional_string: value } into the message.
+  private static MessageLite withSubMessageString(MessageLite message, String value)
+      throws Exception {
+    ByteString.Output subMessage = ByteString.newOutput();
+    CodedOutputStream subMessageOutput = CodedOutputStream.newInstance(subMessage);
+    subMessageOutput.writeString(1, value);
+    subMessageOutput.flush();
+    ByteString.Output field = ByteString.newOutput();
+    CodedOutputStream fieldOutput = CodedOutputStream.newInstance(field);
+    fieldOutput.writeBytes(2, subMessage.toByteString());
+    fieldOutput.flush();
+    return message
+        .getParserForType()
+        .parseFrom(message.toByteString().concat(field.toByteString()));
+  }
+
   @Test
   public void testHasAllRequiredFields_success() {
     expectThat(config.nonEmptyMessage()).hasAllRequiredFields();
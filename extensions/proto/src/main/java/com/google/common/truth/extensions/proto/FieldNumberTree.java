@@ -16,60 +16,75 @@
 
 package com.google.common.truth.extensions.proto;
 
-import com.google.auto.value.AutoValue;
-import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import com.google.protobuf.UnknownFieldSet;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Tree representation of all set field numbers in a message, merging across repeated elements.
  *
- * <p>Sub messages are represented by child {@link FieldNumberTree} objects.
+ * <p>Sub messages are represented by child {@link FieldNumberTree} objects. Trees are immutable,
+ * so subtrees are freely shared between trees: in particular, every leaf is {@link #empty()}.
  *
  * @see FieldScopeImpl#partialScope
  */
 final class FieldNumberTree {
 
-  private static final FieldNumberTree EMPTY = new FieldNumberTree();
+  private static final int[] NO_FIELD_NUMBERS = new int[0];
+  private static final FieldNumberTree[] NO_CHILDREN = new FieldNumberTree[0];
+
+  private static final FieldNumberTree EMPTY =
+      new FieldNumberTree(
+          NO_FIELD_NUMBERS, NO_CHILDREN, ImmutableMap.<UnknownFieldDescriptor, FieldNumberTree>of());
+
+  /**
+   * Trees of the messages given to {@link #fromMessage}, by identity. Partial scopes are often
+   * built repeatedly from the same messages, e.g. once per assertion when comparing expected fields
+   * only, so this saves walking them again.
+   */
+  private static final LoadingCache<Message, FieldNumberTree> MESSAGE_TREES =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .build(
+              new CacheLoader<Message, FieldNumberTree>() {
+                @Override
+                public FieldNumberTree load(Message message) {
+                  return build(message);
+                }
+              });
 
   /** A {@code FieldNumberTree} with no children. */
   static FieldNumberTree empty() {
     return EMPTY;
   }
 
-  @AutoValue
-  abstract static class Key {
-    abstract Optional<Integer> knownFieldNumber();
-
-    abstract Optional<UnknownFieldDescriptor> unknownFieldDescriptor();
-
-    static Key fromFieldDescriptorOrUnknown(FieldDescriptorOrUnknown fieldDescriptorOrUnknown) {
-      return fieldDescriptorOrUnknown.fieldDescriptor().isPresent()
-          ? known(fieldDescriptorOrUnknown.fieldDescriptor().get().getNumber())
-          : unknown(fieldDescriptorOrUnknown.unknownFieldDescriptor().get());
-    }
+  // Children of known fields, as parallel arrays sorted by field number.
+  private final int[] fieldNumbers;
+  private final FieldNumberTree[] knownChildren;
 
-    static Key known(int fieldNumber) {
-      return new AutoValue_FieldNumberTree_Key(
-          Optional.of(fieldNumber), Optional.<UnknownFieldDescriptor>absent());
-    }
+  // Unknown fields are rare, so their children are kept in a plain map.
+  private final ImmutableMap<UnknownFieldDescriptor, FieldNumberTree> unknownChildren;
 
-    static Key unknown(UnknownFieldDescriptor unknownFieldDescriptor) {
-      return new AutoValue_FieldNumberTree_Key(
-          Optional.<Integer>absent(), Optional.of(unknownFieldDescriptor));
-    }
+  private FieldNumberTree(
+      int[] fieldNumbers,
+      FieldNumberTree[] knownChildren,
+      ImmutableMap<UnknownFieldDescriptor, FieldNumberTree> unknownChildren) {
+    this.fieldNumbers = fieldNumbers;
+    this.knownChildren = knownChildren;
+    this.unknownChildren = unknownChildren;
   }
 
-  // Modified only during [factory] construction, never changed afterwards.
-  private final Map<Key, FieldNumberTree> children = Maps.newHashMap();
-
   /** Returns whether this {@code FieldNumberTree} has no children. */
   boolean isEmpty() {
-    return children.isEmpty();
+    return fieldNumbers.length == 0 && unknownChildren.isEmpty();
   }
 
   /**
@@ -78,75 +93,193 @@ final class FieldNumberTree {
    * <p>{@code empty()} if there is none.
    */
   FieldNumberTree child(FieldDescriptorOrUnknown fieldDescriptorOrUnknown) {
-    FieldNumberTree child =
-        children.get(Key.fromFieldDescriptorOrUnknown(fieldDescriptorOrUnknown));
+    FieldNumberTree child;
+    if (fieldDescriptorOrUnknown.fieldDescriptor().isPresent()) {
+      int index =
+          Arrays.binarySearch(
+              fieldNumbers, fieldDescriptorOrUnknown.fieldDescriptor().get().getNumber());
+      child = index >= 0 ? knownChildren[index] : null;
+    } else {
+      child = unknownChildren.get(fieldDescriptorOrUnknown.unknownFieldDescriptor().get());
+    }
     return child == null ? EMPTY : child;
   }
 
   /** Returns whether this tree has a child for this node. */
   boolean hasChild(FieldDescriptorOrUnknown fieldDescriptorOrUnknown) {
-    return children.containsKey(Key.fromFieldDescriptorOrUnknown(fieldDescriptorOrUnknown));
+    if (fieldDescriptorOrUnknown.fieldDescriptor().isPresent()) {
+      return Arrays.binarySearch(
+              fieldNumbers, fieldDescriptorOrUnknown.fieldDescriptor().get().getNumber())
+          >= 0;
+    } else {
+      return unknownChildren.containsKey(fieldDescriptorOrUnknown.unknownFieldDescriptor().get());
+    }
   }
 
+  /** Returns the tree of the given message. The result is cached by the message's identity. */
   static FieldNumberTree fromMessage(Message message) {
-    FieldNumberTree tree = new FieldNumberTree();
+    return MESSAGE_TREES.getUnchecked(message);
+  }
 
-    // Known fields.
-    Map<FieldDescriptor, Object> knownFieldValues = message.getAllFields();
-    for (FieldDescriptor field : knownFieldValues.keySet()) {
-      Key key = Key.known(field.getNumber());
-      FieldNumberTree childTree = new FieldNumberTree();
-      tree.children.put(key, childTree);
+  /** Returns the union of the trees of the given messages. Null messages are skipped. */
+  static FieldNumberTree fromMessages(Iterable<? extends Message> messages) {
+    FieldNumberTree tree = EMPTY;
+    for (Message message : messages) {
+      if (message != null) {
+        tree = union(tree, fromMessage(message));
+      }
+    }
+    return tree;
+  }
 
-      Object fieldValue = knownFieldValues.get(field);
+  private static FieldNumberTree build(Message message) {
+    Map<FieldDescriptor, Object> knownFieldValues = message.getAllFields();
+    int[] fieldNumbers = new int[knownFieldValues.size()];
+    FieldNumberTree[] knownChildren = new FieldNumberTree[knownFieldValues.size()];
+    boolean sorted = true;
+    int i = 0;
+    for (Map.Entry<FieldDescriptor, Object> entry : knownFieldValues.entrySet()) {
+      FieldDescriptor field = entry.getKey();
+      FieldNumberTree childTree = EMPTY;
       if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
         if (field.isRepeated()) {
-          List<?> valueList = (List<?>) fieldValue;
-          for (Object value : valueList) {
-            childTree.merge(fromMessage((Message) value));
+          for (Object value : (List<?>) entry.getValue()) {
+            childTree = union(childTree, build((Message) value));
           }
         } else {
-          childTree.merge(fromMessage((Message) fieldValue));
+          childTree = build((Message) entry.getValue());
         }
       }
-    }
 
-    // Unknown fields.
-    tree.merge(fromUnknownFieldSet(message.getUnknownFields()));
+      fieldNumbers[i] = field.getNumber();
+      knownChildren[i] = childTree;
+      sorted &= i == 0 || fieldNumbers[i - 1] < fieldNumbers[i];
+      i++;
+    }
+    if (!sorted) {
+      sortByFieldNumber(fieldNumbers, knownChildren);
+    }
 
-    return tree;
+    ImmutableMap<UnknownFieldDescriptor, FieldNumberTree> unknownChildren =
+        unknownChildren(message.getUnknownFields());
+    if (fieldNumbers.length == 0 && unknownChildren.isEmpty()) {
+      return EMPTY;
+    }
+    return new FieldNumberTree(fieldNumbers, knownChildren, unknownChildren);
   }
 
-  private static FieldNumberTree fromUnknownFieldSet(UnknownFieldSet unknownFieldSet) {
-    FieldNumberTree tree = new FieldNumberTree();
-    for (int fieldNumber : unknownFieldSet.asMap().keySet()) {
-      UnknownFieldSet.Field unknownField = unknownFieldSet.asMap().get(fieldNumber);
+  private static ImmutableMap<UnknownFieldDescriptor, FieldNumberTree> unknownChildren(
+      UnknownFieldSet unknownFieldSet) {
+    if (unknownFieldSet.asMap().isEmpty()) {
+      return ImmutableMap.of();
+    }
+    ImmutableMap.Builder<UnknownFieldDescriptor, FieldNumberTree> unknownChildren =
+        ImmutableMap.builder();
+    for (Map.Entry<Integer, UnknownFieldSet.Field> entry : unknownFieldSet.asMap().entrySet()) {
+      UnknownFieldSet.Field unknownField = entry.getValue();
       for (UnknownFieldDescriptor unknownFieldDescriptor :
-          UnknownFieldDescriptor.descriptors(fieldNumber, unknownField)) {
-        Key key = Key.unknown(unknownFieldDescriptor);
-        FieldNumberTree childTree = new FieldNumberTree();
-        tree.children.put(key, childTree);
-
+          UnknownFieldDescriptor.descriptors(entry.getKey(), unknownField)) {
+        FieldNumberTree childTree = EMPTY;
         if (unknownFieldDescriptor.type() == UnknownFieldDescriptor.Type.GROUP) {
           for (Object group : unknownFieldDescriptor.type().getValues(unknownField)) {
-            childTree.merge(fromUnknownFieldSet((UnknownFieldSet) group));
+            ImmutableMap<UnknownFieldDescriptor, FieldNumberTree> groupChildren =
+                unknownChildren((UnknownFieldSet) group);
+            if (!groupChildren.isEmpty()) {
+              childTree =
+                  union(childTree, new FieldNumberTree(NO_FIELD_NUMBERS, NO_CHILDREN, groupChildren));
+            }
           }
         }
+        unknownChildren.put(unknownFieldDescriptor, childTree);
       }
     }
+    return unknownChildren.build();
+  }
 
-    return tree;
+  private static void sortByFieldNumber(int[] fieldNumbers, FieldNumberTree[] knownChildren) {
+    Map<Integer, FieldNumberTree> sortedChildren = Maps.newTreeMap();
+    for (int i = 0; i < fieldNumbers.length; i++) {
+      sortedChildren.put(fieldNumbers[i], knownChildren[i]);
+    }
+    int i = 0;
+    for (Map.Entry<Integer, FieldNumberTree> entry : sortedChildren.entrySet()) {
+      fieldNumbers[i] = entry.getKey();
+      knownChildren[i] = entry.getValue();
+      i++;
+    }
   }
 
-  /** Adds the other tree onto this one. May destroy {@code other} in the process. */
-  private void merge(FieldNumberTree other) {
-    for (Key key : other.children.keySet()) {
-      FieldNumberTree value = other.children.get(key);
-      if (!this.children.containsKey(key)) {
-        this.children.put(key, value);
+  /**
+   * Returns a tree with the children of both trees. Returns {@code a} itself if {@code b} adds
+   * nothing to it, which is the common case when merging many similar messages.
+   */
+  private static FieldNumberTree union(FieldNumberTree a, FieldNumberTree b) {
+    if (contains(a, b)) {
+      return a;
+    } else if (contains(b, a)) {
+      return b;
+    }
+
+    // Merge the sorted field numbers.
+    int[] fieldNumbers = new int[a.fieldNumbers.length + b.fieldNumbers.length];
+    FieldNumberTree[] knownChildren = new FieldNumberTree[fieldNumbers.length];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < a.fieldNumbers.length || j < b.fieldNumbers.length) {
+      if (j == b.fieldNumbers.length
+          || (i < a.fieldNumbers.length && a.fieldNumbers[i] < b.fieldNumbers[j])) {
+        fieldNumbers[size] = a.fieldNumbers[i];
+        knownChildren[size++] = a.knownChildren[i++];
+      } else if (i == a.fieldNumbers.length || b.fieldNumbers[j] < a.fieldNumbers[i]) {
+        fieldNumbers[size] = b.fieldNumbers[j];
+        knownChildren[size++] = b.knownChildren[j++];
       } else {
-        this.children.get(key).merge(value);
+        fieldNumbers[size] = a.fieldNumbers[i];
+        knownChildren[size++] = union(a.knownChildren[i++], b.knownChildren[j++]);
+      }
+    }
+
+    ImmutableMap<UnknownFieldDescriptor, FieldNumberTree> unknownChildren = a.unknownChildren;
+    if (!b.unknownChildren.isEmpty()) {
+      Map<UnknownFieldDescriptor, FieldNumberTree> merged =
+          Maps.newLinkedHashMap(a.unknownChildren);
+      for (Map.Entry<UnknownFieldDescriptor, FieldNumberTree> entry :
+          b.unknownChildren.entrySet()) {
+        FieldNumberTree existing = merged.get(entry.getKey());
+        merged.put(
+            entry.getKey(),
+            existing == null ? entry.getValue() : union(existing, entry.getValue()));
+      }
+      unknownChildren = ImmutableMap.copyOf(merged);
+    }
+
+    return new FieldNumberTree(
+        Arrays.copyOf(fieldNumbers, size), Arrays.copyOf(knownChildren, size), unknownChildren);
+  }
+
+  /** Returns whether every path in {@code b} is also in {@code a}. */
+  private static boolean contains(FieldNumberTree a, FieldNumberTree b) {
+    if (a == b || b.isEmpty()) {
+      return true;
+    }
+    int i = 0;
+    for (int j = 0; j < b.fieldNumbers.length; j++) {
+      while (i < a.fieldNumbers.length && a.fieldNumbers[i] < b.fieldNumbers[j]) {
+        i++;
+      }
+      if (i == a.fieldNumbers.length
+          || a.fieldNumbers[i] != b.fieldNumbers[j]
+          || !contains(a.knownChildren[i], b.knownChildren[j])) {
+        return false;
+      }
+    }
+    for (Map.Entry<UnknownFieldDescriptor, FieldNumberTree> entry : b.unknownChildren.entrySet()) {
+      FieldNumberTree child = a.unknownChildren.get(entry.getKey());
+      if (child == null || !contains(child, entry.getValue())) {
+        return false;
       }
     }
+    return true;
   }
 }
@@ -63,9 +63,7 @@ abstract class FieldScopeImpl extends FieldScope {
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
   static FieldScope createFromSetFields(Message message) {
-    return create(
-        FieldScopeLogic.partialScope(message),
-        Functions.constant(String.format("FieldScopes.fromSetFields({%s})", message.toString())));
+    return create(FieldScopeLogic.partialScope(message), setFieldsFunction(message));
   }
 
   static FieldScope createFromSetFields(Iterable<? extends Message> messages) {
@@ -81,23 +79,10 @@ abstract class FieldScopeImpl extends FieldScope {
         "Cannot create scope from messages with different descriptors: %s",
         getDescriptors(messages));
 
-    Message.Builder builder = null;
-    for (Message message : messages) {
-      if (message == null) {
-        continue;
-      }
-
-      if (builder != null) {
-        builder.mergeFrom(message);
-      } else {
-        builder = message.toBuilder();
-      }
-    }
-
-    Message aggregateMessage = builder.build();
+    List<Message> messageList = Lists.newArrayList(messages);
     return create(
-        FieldScopeLogic.partialScope(aggregateMessage),
-        Functions.constant(String.format("FieldScopes.fromSetFields(%s)", formatList(messages))));
+        FieldScopeLogic.partialScope(messageList, optDescriptor.get()),
+        setFieldsFunction(messageList));
   }
 
   static FieldScope createIgnoringFields(Iterable<Integer> fieldNumbers) {
@@ -231,6 +216,27 @@ abstract class FieldScopeImpl extends FieldScope {
     return descriptors;
   }
 
+  // The setFieldsFunction()s format the messages only when applied, since they may be large.
+
+  private static Function<Optional<Descriptor>, String> setFieldsFunction(final Message message) {
+    return new Function<Optional<Descriptor>, String>() {
+      @Override
+      public String apply(Optional<Descriptor> optDescriptor) {
+        return String.format("FieldScopes.fromSetFields({%s})", message);
+      }
+    };
+  }
+
+  private static Function<Optional<Descriptor>, String> setFieldsFunction(
+      final List<? extends Message> messages) {
+    return new Function<Optional<Descriptor>, String>() {
+      @Override
+      public String apply(Optional<Descriptor> optDescriptor) {
+        return String.format("FieldScopes.fromSetFields(%s)", formatList(messages));
+      }
+    };
+  }
+
   private static String formatList(Iterable<? extends Message> messages) {
     List<String> strings = Lists.newArrayList();
     for (Message message : messages) {
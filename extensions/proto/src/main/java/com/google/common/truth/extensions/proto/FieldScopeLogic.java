@@ -244,13 +244,16 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
   }
 
   private static final class RootPartialScopeLogic extends PartialScopeLogic {
-    private final Message message;
+    private final ImmutableList<Message> messages;
     private final Descriptor expectedDescriptor;
 
-    RootPartialScopeLogic(Message message) {
-      super(FieldNumberTree.fromMessage(message));
-      this.message = message;
-      this.expectedDescriptor = message.getDescriptorForType();
+    RootPartialScopeLogic(
+        FieldNumberTree fieldNumberTree,
+        ImmutableList<Message> messages,
+        Descriptor expectedDescriptor) {
+      super(fieldNumberTree);
+      this.messages = messages;
+      this.expectedDescriptor = expectedDescriptor;
     }
 
     @Override
@@ -270,12 +273,37 @@ abstract class FieldScopeLogic implements FieldScopeLogicContainer<FieldScopeLog
 
     @Override
     public String toString() {
-      return String.format("FieldScopes.fromSetFields(%s)", message);
+      // Merging the messages is only worth it for display purposes, so we do it lazily.
+      Message.Builder builder = messages.get(0).toBuilder();
+      for (int i = 1; i < messages.size(); i++) {
+        builder.mergeFrom(messages.get(i));
+      }
+      return String.format("FieldScopes.fromSetFields(%s)", builder.build());
     }
   }
 
   static FieldScopeLogic partialScope(Message message) {
-    return new RootPartialScopeLogic(message);
+    return new RootPartialScopeLogic(
+        FieldNumberTree.fromMessage(message),
+        ImmutableList.of(message),
+        message.getDescriptorForType());
+  }
+
+  /**
+   * Returns the partial scope of the merge of the given messages, all of which have the given
+   * descriptor. Null messages are skipped, but there must be at least one non-null message.
+   */
+  static FieldScopeLogic partialScope(
+      Iterable<? extends Message> messages, Descriptor expectedDescriptor) {
+    ImmutableList.Builder<Message> nonNullMessages = ImmutableList.builder();
+    for (Message message : messages) {
+      if (message != null) {
+        nonNullMessages.add(message);
+      }
+    }
+    ImmutableList<Message> messageList = nonNullMessages.build();
+    return new RootPartialScopeLogic(
+        FieldNumberTree.fromMessages(messageList), messageList, expectedDescriptor);
   }
 
   // TODO(user): Performance: Optimize FieldNumbersLogic and FieldDescriptorsLogic for
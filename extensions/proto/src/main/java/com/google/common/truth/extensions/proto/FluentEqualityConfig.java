@@ -22,6 +22,7 @@ import static com.google.common.truth.extensions.proto.FieldScopeUtil.join;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
+import com.google.common.base.Objects;
 import com.google.common.base.Optional;
 import com.google.common.base.Verify;
 import com.google.common.cache.CacheBuilder;
@@ -34,6 +35,7 @@ import com.google.errorprone.annotations.CheckReturnValue;
 import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
+import java.util.Arrays;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -56,6 +58,7 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
           .setCompareExpectedFieldsOnly(false)
           .setCompareFieldsScope(FieldScopeLogic.all())
           .setReportMismatchesOnly(false)
+          .setDiffFieldsInParallel(false)
           .setUsingCorrespondenceStringFunction(Functions.constant(""))
           .build();
 
@@ -101,6 +104,9 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
 
   abstract boolean reportMismatchesOnly();
 
+  // Performance only, does not affect behavior.
+  abstract boolean diffFieldsInParallel();
+
   // For pretty-printing, does not affect behavior.
   abstract Function<? super Optional<Descriptor>, String> usingCorrespondenceStringFunction();
 
@@ -317,6 +323,10 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
         .build();
   }
 
+  final FluentEqualityConfig comparingFieldsInParallel() {
+    return toBuilder().setDiffFieldsInParallel(true).build();
+  }
+
   @Override
   public final FluentEqualityConfig subScope(
       Descriptor rootDescriptor, FieldDescriptorOrUnknown fieldDescriptorOrUnknown) {
@@ -363,15 +373,42 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
     return messageDifferencers.getUnchecked(descriptor);
   }
 
+  /**
+   * Whether every pair of {@link Message#equals equal} messages is matched under this config, so
+   * that comparisons may skip the diff for them.
+   *
+   * <p>Every option other than a float or double tolerance only makes the comparison more lenient.
+   * Tolerances don't: {@link Correspondence#tolerance} never matches {@code NaN}, not even with
+   * itself.
+   */
+  final boolean matchesEqualMessages() {
+    return doubleCorrespondenceMap().isEmpty() && floatCorrespondenceMap().isEmpty();
+  }
+
   final <M extends Message> Correspondence<M, M> toCorrespondence(
       final Optional<Descriptor> optDescriptor) {
     checkState(expectedMessages().isPresent(), "expectedMessages() not set");
     return new Correspondence<M, M>() {
       @Override
       public final boolean compare(@NullableDecl M actual, @NullableDecl M expected) {
-        return ProtoTruth.assertThat(actual)
-            .usingConfig(FluentEqualityConfig.this)
-            .testIsEqualTo(expected);
+        if (actual == null
+            || expected == null
+            || actual.getDescriptorForType() != expected.getDescriptorForType()) {
+          return Objects.equal(actual, expected);
+        }
+
+        if (matchesEqualMessages() && actual.equals(expected)) {
+          return true;
+        }
+
+        // Without compareExpectedFieldsOnly(), the expected messages don't affect the differencer,
+        // so we can reuse the cached one rather than building a new one for every comparison.
+        ProtoTruthMessageDifferencer differencer =
+            compareExpectedFieldsOnly()
+                ? withExpectedMessages(Arrays.asList(expected))
+                    .toMessageDifferencer(actual.getDescriptorForType())
+                : toMessageDifferencer(actual.getDescriptorForType());
+        return differencer.diffMessages(actual, expected).isMatched();
       }
 
       @Override
@@ -424,6 +461,8 @@ abstract class FluentEqualityConfig implements FieldScopeLogicContainer<FluentEq
 
     abstract Builder setReportMismatchesOnly(boolean reportMismatchesOnly);
 
+    abstract Builder setDiffFieldsInParallel(boolean diffFieldsInParallel);
+
     @CheckReturnValue
     abstract Function<? super Optional<Descriptor>, String> usingCorrespondenceStringFunction();
 
@@ -31,8 +31,13 @@ import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -784,12 +789,164 @@ public class MultimapWithProtoValuesSubject<
   // UsingCorrespondence Methods
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
+  private Correspondence<M, M> correspondence(Iterable<? extends M> expectedValues) {
+    return config
+        .withExpectedMessages(expectedValues)
+        .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values()));
+  }
+
   private MultimapSubject.UsingCorrespondence<M, M> usingCorrespondence(
       Iterable<? extends M> expectedValues) {
-    return comparingValuesUsing(
-        config
-            .withExpectedMessages(expectedValues)
-            .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values())));
+    return comparingValuesUsing(correspondence(expectedValues));
+  }
+
+  private Ordered usingCorrespondenceContainsExactlyEntriesIn(
+      final Multimap<?, ? extends M> expectedMultimap) {
+    final Correspondence<M, M> correspondence = correspondence(expectedMultimap.values());
+    if (!correspondsByKey(correspondence, expectedMultimap)) {
+      // Let the general algorithm find and report the mismatch, so the failure message is the same.
+      return comparingValuesUsing(correspondence).containsExactlyEntriesIn(expectedMultimap);
+    }
+    return new Ordered() {
+      @Override
+      public void inOrder() {
+        if (!correspondsInOrder(correspondence, expectedMultimap)) {
+          comparingValuesUsing(correspondence).containsExactlyEntriesIn(expectedMultimap).inOrder();
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns whether the actual multimap has exactly the keys of {@code expectedMultimap}, and for
+   * each key, its values can be paired one-to-one with the expected values for that key.
+   *
+   * <p>The general fuzzy algorithm considers every pair of entries in the two multimaps. Here, keys
+   * are joined by hashing, and matching is only attempted within each key's values, which is much
+   * faster for large multimaps. A false result doesn't necessarily mean that the assertion fails:
+   * exceptions from the correspondence, and keys we can't hash, also return false, leaving it to
+   * the general algorithm to decide.
+   */
+  private boolean correspondsByKey(
+      Correspondence<M, M> correspondence, Multimap<?, ? extends M> expectedMultimap) {
+    Multimap<?, M> actualMultimap = getCastActual();
+    if (actualMultimap == null
+        || expectedMultimap.isEmpty()
+        || actualMultimap.size() != expectedMultimap.size()) {
+      return false;
+    }
+    Map<Object, List<? extends M>> expectedValuesByKey = new HashMap<>();
+    for (Entry<?, ? extends Collection<? extends M>> entry :
+        expectedMultimap.asMap().entrySet()) {
+      expectedValuesByKey.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    if (actualMultimap.keySet().size() != expectedValuesByKey.size()) {
+      return false;
+    }
+
+    try {
+      for (Entry<?, Collection<M>> entry : actualMultimap.asMap().entrySet()) {
+        List<? extends M> expectedValues = expectedValuesByKey.get(entry.getKey());
+        if (entry.getKey() == null
+            || expectedValues == null
+            || !correspondsExactly(
+                correspondence, new ArrayList<>(entry.getValue()), expectedValues)) {
+          return false;
+        }
+      }
+    } catch (RuntimeException e) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the entries of the actual multimap and {@code expectedMultimap}, iterated
+   * pairwise, have equal keys and corresponding values.
+   */
+  private boolean correspondsInOrder(
+      Correspondence<M, M> correspondence, Multimap<?, ? extends M> expectedMultimap) {
+    Iterator<? extends Entry<?, M>> actualEntries = getCastActual().entries().iterator();
+    Iterator<? extends Entry<?, ? extends M>> expectedEntries =
+        expectedMultimap.entries().iterator();
+    try {
+      while (actualEntries.hasNext() && expectedEntries.hasNext()) {
+        Entry<?, M> actualEntry = actualEntries.next();
+        Entry<?, ? extends M> expectedEntry = expectedEntries.next();
+        if (!actualEntry.getKey().equals(expectedEntry.getKey())
+            || !correspondence.compare(actualEntry.getValue(), expectedEntry.getValue())) {
+          return false;
+        }
+      }
+    } catch (RuntimeException e) {
+      return false;
+    }
+    return !(actualEntries.hasNext() || expectedEntries.hasNext());
+  }
+
+  /**
+   * Returns whether there is a one-to-one pairing of {@code actual} and {@code expected} elements
+   * where each pair corresponds.
+   */
+  private static <M> boolean correspondsExactly(
+      Correspondence<M, M> correspondence, List<M> actual, List<? extends M> expected) {
+    int size = actual.size();
+    if (size != expected.size()) {
+      return false;
+    }
+
+    // The common case: the values correspond in order.
+    int firstMismatch = 0;
+    while (firstMismatch < size
+        && correspondence.compare(actual.get(firstMismatch), expected.get(firstMismatch))) {
+      firstMismatch++;
+    }
+    if (firstMismatch == size) {
+      return true;
+    }
+
+    // Otherwise, find a maximum matching by augmenting paths. Value bags are small, so the simple
+    // algorithm is good enough.
+    boolean[][] corresponds = new boolean[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        corresponds[i][j] =
+            (i == j && i < firstMismatch) || correspondence.compare(actual.get(i), expected.get(j));
+      }
+    }
+    int[] actualIndexForExpected = new int[size];
+    Arrays.fill(actualIndexForExpected, -1);
+    for (int i = 0; i < size; i++) {
+      if (!augment(i, corresponds, actualIndexForExpected, new boolean[size])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Tries to match 'actualIndex', reassigning earlier matches along an augmenting path if needed.
+  private static boolean augment(
+      int actualIndex, boolean[][] corresponds, int[] actualIndexForExpected, boolean[] visited) {
+    for (int expectedIndex = 0; expectedIndex < visited.length; expectedIndex++) {
+      if (corresponds[actualIndex][expectedIndex] && !visited[expectedIndex]) {
+        visited[expectedIndex] = true;
+        if (actualIndexForExpected[expectedIndex] < 0
+            || augment(
+                actualIndexForExpected[expectedIndex],
+                corresponds,
+                actualIndexForExpected,
+                visited)) {
+          actualIndexForExpected[expectedIndex] = actualIndex;
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked") // The values of actual() are of type M.
+  private Multimap<?, M> getCastActual() {
+    return (Multimap<?, M>) actual();
   }
 
   // The UsingCorrespondence methods have conflicting erasure with default MapSubject methods,
@@ -1029,9 +1186,7 @@ public class MultimapWithProtoValuesSubject<
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactlyEntriesIn(Multimap<?, ? extends M> expectedMap) {
-      return subject
-          .usingCorrespondence(expectedMap.values())
-          .containsExactlyEntriesIn(expectedMap);
+      return subject.usingCorrespondenceContainsExactlyEntriesIn(expectedMap);
     }
 
     @Override
@@ -453,6 +453,19 @@ public interface ProtoFluentAssertion {
    */
   ProtoFluentAssertion reportingMismatchesOnly();
 
+  /**
+   * Specifies that large top-level fields should be compared concurrently, on a shared {@link
+   * java.util.concurrent.ForkJoinPool}. Useful for very large protocol buffers with many big
+   * repeated fields, whose comparisons are independent of each other.
+   *
+   * <p>Only repeated and map fields holding hundreds of elements or more are split off; smaller
+   * fields are still compared on the calling thread.
+   *
+   * <p>This a purely performance-related setting: the comparison result, and any failure message,
+   * are identical to those produced without it.
+   */
+  ProtoFluentAssertion comparingFieldsInParallel();
+
   /**
    * Compares the subject of the assertion to {@code expected}, using all of the rules specified by
    * earlier operations. If no settings are changed, this invokes the default {@code equals}
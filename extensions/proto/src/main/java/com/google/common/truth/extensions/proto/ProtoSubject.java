@@ -270,6 +270,11 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  @Override
+  public ProtoFluentAssertion comparingFieldsInParallel() {
+    return usingConfig(config.comparingFieldsInParallel());
+  }
+
   private static boolean notMessagesWithSameDescriptor(
       @NullableDecl Message actual, @NullableDecl Object expected) {
     if (actual != null && expected instanceof Message) {
@@ -40,6 +40,7 @@ import com.google.protobuf.TextFormat;
 import com.google.protobuf.UnknownFieldSet;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
@@ -47,6 +48,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -84,6 +87,9 @@ final class ProtoTruthMessageDifferencer {
         actual.getDescriptorForType(),
         expected.getDescriptorForType());
 
+    if (rootConfig.diffFieldsInParallel()) {
+      return diffMessagesInParallel(actual, expected);
+    }
     return diffMessages(actual, expected, rootConfig);
   }
 
@@ -95,101 +101,210 @@ final class ProtoTruthMessageDifferencer {
     Map<FieldDescriptor, Object> expectedFields = expected.getAllFields();
     for (FieldDescriptor fieldDescriptor :
         Sets.union(actualFields.keySet(), expectedFields.keySet())) {
-      // Check if we should ignore this field.  If the result is nonrecursive, proceed anyway, but
-      // the field will be considered ignored in the final diff report if no sub-fields get compared
-      // (i.e., the sub-DiffResult winds up empty). This allows us support FieldScopeLogic
-      // disjunctions without repeating recursive work.
-      FieldDescriptorOrUnknown fieldDescriptorOrUnknown =
-          FieldDescriptorOrUnknown.fromFieldDescriptor(fieldDescriptor);
-      FieldScopeResult shouldCompare =
-          config.compareFieldsScope().policyFor(rootDescriptor, fieldDescriptorOrUnknown);
-      if (shouldCompare == FieldScopeResult.EXCLUDED_RECURSIVELY) {
-        builder.addSingularField(
-            fieldDescriptor.getNumber(), SingularField.ignored(name(fieldDescriptor)));
-        continue;
-      }
+      diffField(fieldDescriptor, actual, actualFields, expectedFields, config, builder);
+    }
 
-      if (fieldDescriptor.isRepeated()) {
-        if (fieldDescriptor.isMapField()) {
-          Map<Object, Object> actualMap = toProtoMap(actualFields.get(fieldDescriptor));
-          Map<Object, Object> expectedMap = toProtoMap(expectedFields.get(fieldDescriptor));
+    // Compare unknown fields.
+    if (!config.ignoreFieldAbsenceScope().isAll()) {
+      UnknownFieldSetDiff diff =
+          diffUnknowns(actual.getUnknownFields(), expected.getUnknownFields(), config);
+      builder.setUnknownFields(diff);
+    }
 
-          ImmutableSet<Object> keyOrder =
-              Sets.union(actualMap.keySet(), expectedMap.keySet()).immutableCopy();
-          builder.addAllSingularFields(
-              fieldDescriptor.getNumber(),
-              compareMapFieldsByKey(
-                  actualMap,
-                  expectedMap,
-                  keyOrder,
-                  fieldDescriptor,
-                  config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
-        } else {
-          List<?> actualList = toProtoList(actualFields.get(fieldDescriptor));
-          List<?> expectedList = toProtoList(expectedFields.get(fieldDescriptor));
-
-          boolean ignoreRepeatedFieldOrder =
-              config
-                  .ignoreRepeatedFieldOrderScope()
-                  .contains(rootDescriptor, fieldDescriptorOrUnknown);
-          boolean ignoreExtraRepeatedFieldElements =
-              config
-                  .ignoreExtraRepeatedFieldElementsScope()
-                  .contains(rootDescriptor, fieldDescriptorOrUnknown);
-          if (ignoreRepeatedFieldOrder) {
-            builder.addRepeatedField(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldIgnoringOrder(
-                    actualList,
-                    expectedList,
-                    shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
-                    fieldDescriptor,
-                    ignoreExtraRepeatedFieldElements,
-                    config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
-          } else if (ignoreExtraRepeatedFieldElements && !expectedList.isEmpty()) {
-            builder.addRepeatedField(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldExpectingSubsequence(
-                    actualList,
-                    expectedList,
-                    shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
-                    fieldDescriptor,
-                    config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
-          } else {
-            builder.addAllSingularFields(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldByIndices(
-                    actualList,
-                    expectedList,
-                    shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
-                    fieldDescriptor,
-                    config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
-          }
-        }
+    return builder.build();
+  }
+
+  /**
+   * Same as {@link #diffMessages(Message, Message, FluentEqualityConfig)} with the root config,
+   * except that large top-level fields are compared concurrently.
+   *
+   * <p>Each large field is diffed into its own partial {@link DiffResult}, and the partial results
+   * are merged back in the same field order used by the sequential walk, so the output does not
+   * depend on scheduling.
+   */
+  private DiffResult diffMessagesInParallel(Message actual, Message expected) {
+    DiffResult.Builder builder = DiffResult.newBuilder().setActual(actual).setExpected(expected);
+
+    Map<FieldDescriptor, Object> actualFields = actual.getAllFields();
+    Map<FieldDescriptor, Object> expectedFields = expected.getAllFields();
+    Set<FieldDescriptor> fieldDescriptors =
+        Sets.union(actualFields.keySet(), expectedFields.keySet());
+
+    // Start the large fields first, so they run while we compare the small ones.
+    Map<FieldDescriptor, FieldDiffTask> tasks = Maps.newHashMap();
+    for (FieldDescriptor fieldDescriptor : fieldDescriptors) {
+      if (fieldSize(actualFields.get(fieldDescriptor))
+              + fieldSize(expectedFields.get(fieldDescriptor))
+          >= PARALLEL_FIELD_SIZE_THRESHOLD) {
+        FieldDiffTask task = new FieldDiffTask(fieldDescriptor, actual, expected);
+        ParallelDiffPool.INSTANCE.execute(task);
+        tasks.put(fieldDescriptor, task);
+      }
+    }
+
+    for (FieldDescriptor fieldDescriptor : fieldDescriptors) {
+      @NullableDecl FieldDiffTask task = tasks.get(fieldDescriptor);
+      if (task == null) {
+        diffField(fieldDescriptor, actual, actualFields, expectedFields, rootConfig, builder);
       } else {
-        builder.addSingularField(
-            fieldDescriptor.getNumber(),
-            compareSingularValue(
-                actualFields.get(fieldDescriptor),
-                expectedFields.get(fieldDescriptor),
-                actual.getDefaultInstanceForType().getField(fieldDescriptor),
-                shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
-                fieldDescriptor,
-                name(fieldDescriptor),
-                config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
+        DiffResult fieldResult = task.join();
+        for (Map.Entry<Integer, Collection<SingularField>> entry :
+            fieldResult.singularFields().asMap().entrySet()) {
+          builder.addAllSingularFields(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Integer, RepeatedField> entry : fieldResult.repeatedFields().entries()) {
+          builder.addRepeatedField(entry.getKey(), entry.getValue());
+        }
       }
     }
 
     // Compare unknown fields.
-    if (!config.ignoreFieldAbsenceScope().isAll()) {
+    if (!rootConfig.ignoreFieldAbsenceScope().isAll()) {
       UnknownFieldSetDiff diff =
-          diffUnknowns(actual.getUnknownFields(), expected.getUnknownFields(), config);
+          diffUnknowns(actual.getUnknownFields(), expected.getUnknownFields(), rootConfig);
       builder.setUnknownFields(diff);
     }
 
     return builder.build();
   }
 
+  /**
+   * Minimum number of elements, summed over the actual and expected values, for a top-level
+   * repeated field to be diffed as a separate task by {@link #diffMessagesInParallel}.
+   */
+  private static final int PARALLEL_FIELD_SIZE_THRESHOLD = 256;
+
+  // Returns the number of elements in a repeated field value, or 0 for anything else.
+  private static int fieldSize(@NullableDecl Object fieldValue) {
+    return fieldValue instanceof List ? ((List<?>) fieldValue).size() : 0;
+  }
+
+  /** Holder for the pool used by {@link #diffMessagesInParallel}, created on first use. */
+  private static final class ParallelDiffPool {
+    static final ForkJoinPool INSTANCE = new ForkJoinPool();
+  }
+
+  /** Diffs a single top-level field into a partial {@link DiffResult}. */
+  private final class FieldDiffTask extends RecursiveTask<DiffResult> {
+    private final FieldDescriptor fieldDescriptor;
+    private final Message actual;
+    private final Message expected;
+
+    FieldDiffTask(FieldDescriptor fieldDescriptor, Message actual, Message expected) {
+      this.fieldDescriptor = fieldDescriptor;
+      this.actual = actual;
+      this.expected = expected;
+    }
+
+    @Override
+    protected DiffResult compute() {
+      DiffResult.Builder builder =
+          DiffResult.newBuilder().setActual(actual).setExpected(expected);
+      diffField(
+          fieldDescriptor,
+          actual,
+          actual.getAllFields(),
+          expected.getAllFields(),
+          rootConfig,
+          builder);
+      return builder.build();
+    }
+  }
+
+  // Compares one known field of 'actual' against the same field of the expected message, and adds
+  // the results to 'builder'.
+  private void diffField(
+      FieldDescriptor fieldDescriptor,
+      Message actual,
+      Map<FieldDescriptor, Object> actualFields,
+      Map<FieldDescriptor, Object> expectedFields,
+      FluentEqualityConfig config,
+      DiffResult.Builder builder) {
+    // Check if we should ignore this field.  If the result is nonrecursive, proceed anyway, but
+    // the field will be considered ignored in the final diff report if no sub-fields get compared
+    // (i.e., the sub-DiffResult winds up empty). This allows us support FieldScopeLogic
+    // disjunctions without repeating recursive work.
+    FieldDescriptorOrUnknown fieldDescriptorOrUnknown =
+        FieldDescriptorOrUnknown.fromFieldDescriptor(fieldDescriptor);
+    FieldScopeResult shouldCompare =
+        config.compareFieldsScope().policyFor(rootDescriptor, fieldDescriptorOrUnknown);
+    if (shouldCompare == FieldScopeResult.EXCLUDED_RECURSIVELY) {
+      builder.addSingularField(
+          fieldDescriptor.getNumber(), SingularField.ignored(name(fieldDescriptor)));
+      return;
+    }
+
+    if (fieldDescriptor.isRepeated()) {
+      if (fieldDescriptor.isMapField()) {
+        Map<Object, Object> actualMap = toProtoMap(actualFields.get(fieldDescriptor));
+        Map<Object, Object> expectedMap = toProtoMap(expectedFields.get(fieldDescriptor));
+
+        ImmutableSet<Object> keyOrder =
+            Sets.union(actualMap.keySet(), expectedMap.keySet()).immutableCopy();
+        builder.addAllSingularFields(
+            fieldDescriptor.getNumber(),
+            compareMapFieldsByKey(
+                actualMap,
+                expectedMap,
+                keyOrder,
+                fieldDescriptor,
+                config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
+      } else {
+        List<?> actualList = toProtoList(actualFields.get(fieldDescriptor));
+        List<?> expectedList = toProtoList(expectedFields.get(fieldDescriptor));
+
+        boolean ignoreRepeatedFieldOrder =
+            config
+                .ignoreRepeatedFieldOrderScope()
+                .contains(rootDescriptor, fieldDescriptorOrUnknown);
+        boolean ignoreExtraRepeatedFieldElements =
+            config
+                .ignoreExtraRepeatedFieldElementsScope()
+                .contains(rootDescriptor, fieldDescriptorOrUnknown);
+        if (ignoreRepeatedFieldOrder) {
+          builder.addRepeatedField(
+              fieldDescriptor.getNumber(),
+              compareRepeatedFieldIgnoringOrder(
+                  actualList,
+                  expectedList,
+                  shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
+                  fieldDescriptor,
+                  ignoreExtraRepeatedFieldElements,
+                  config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
+        } else if (ignoreExtraRepeatedFieldElements && !expectedList.isEmpty()) {
+          builder.addRepeatedField(
+              fieldDescriptor.getNumber(),
+              compareRepeatedFieldExpectingSubsequence(
+                  actualList,
+                  expectedList,
+                  shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
+                  fieldDescriptor,
+                  config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
+        } else {
+          builder.addAllSingularFields(
+              fieldDescriptor.getNumber(),
+              compareRepeatedFieldByIndices(
+                  actualList,
+                  expectedList,
+                  shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
+                  fieldDescriptor,
+                  config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
+        }
+      }
+    } else {
+      builder.addSingularField(
+          fieldDescriptor.getNumber(),
+          compareSingularValue(
+              actualFields.get(fieldDescriptor),
+              expectedFields.get(fieldDescriptor),
+              actual.getDefaultInstanceForType().getField(fieldDescriptor),
+              shouldCompare == FieldScopeResult.EXCLUDED_NONRECURSIVELY,
+              fieldDescriptor,
+              name(fieldDescriptor),
+              config.subScope(rootDescriptor, fieldDescriptorOrUnknown)));
+    }
+  }
+
   // Helper which takes a proto map in List<Message> form, and converts it to a Map<Object, Object>
   // by extracting the keys and values from the generated map-entry submessages.  Returns an empty
   // map if null is passed in.
@@ -346,6 +461,13 @@ final class ProtoTruthMessageDifferencer {
       boolean excludeNonRecursive,
       FieldDescriptor fieldDescriptor,
       FluentEqualityConfig config) {
+    if (!excludeNonRecursive
+        && matchesByEquality(fieldDescriptor, config)
+        && allElementsShareClass(actualList, expectedList)) {
+      return compareRepeatedFieldExpectingSubsequenceByValue(
+          actualList, expectedList, fieldDescriptor, config);
+    }
+
     RepeatedField.Builder builder =
         RepeatedField.newBuilder()
             .setFieldDescriptor(fieldDescriptor)
@@ -426,6 +548,189 @@ final class ProtoTruthMessageDifferencer {
     return builder.build();
   }
 
+  /**
+   * Equivalent to {@link #compareRepeatedFieldExpectingSubsequence}, for fields whose elements
+   * match if and only if they are {@link Object#equals equal}.
+   *
+   * <p>Rather than diffing each expected element against every remaining actual element, this
+   * indexes the actual elements by value in a single pass, and finds candidate positions by hash
+   * lookup. Detailed diffs are only computed for the pairs which are reported.
+   */
+  private RepeatedField compareRepeatedFieldExpectingSubsequenceByValue(
+      List<?> actualList,
+      List<?> expectedList,
+      FieldDescriptor fieldDescriptor,
+      FluentEqualityConfig config) {
+    RepeatedField.Builder builder =
+        RepeatedField.newBuilder()
+            .setFieldDescriptor(fieldDescriptor)
+            .setActual(actualList)
+            .setExpected(expectedList);
+
+    Map<Object, ActualIndices> actualIndicesByValue =
+        Maps.newHashMapWithExpectedSize(actualList.size());
+    for (int i = 0; i < actualList.size(); i++) {
+      Object actual = actualList.get(i);
+      ActualIndices indices = actualIndicesByValue.get(actual);
+      if (indices == null) {
+        indices = new ActualIndices();
+        actualIndicesByValue.put(actual, indices);
+      }
+      indices.inOrder.addLast(i);
+    }
+
+    // Everything before 'nextActualIndex' which has not been consumed is out of order, exactly as
+    // 'actualNotInOrder' in the general algorithm.
+    boolean[] consumed = new boolean[actualList.size()];
+    int nextActualIndex = 0;
+    for (int expectedIndex = 0; expectedIndex < expectedList.size(); expectedIndex++) {
+      Object expected = expectedList.get(expectedIndex);
+      @NullableDecl ActualIndices indices = actualIndicesByValue.get(expected);
+      @NullableDecl Integer inOrderIndex = null;
+      @NullableDecl Integer outOfOrderIndex = null;
+      if (indices != null) {
+        inOrderIndex = indices.pollInOrder(nextActualIndex);
+        if (inOrderIndex == null) {
+          outOfOrderIndex = indices.outOfOrder.pollFirst();
+        }
+      }
+
+      if (inOrderIndex != null) {
+        consumed[inOrderIndex] = true;
+        nextActualIndex = inOrderIndex + 1;
+        builder.addPairResult(
+            compareRepeatedFieldElementPair(
+                actualList.get(inOrderIndex),
+                expected,
+                /*excludeNonRecursive=*/ false,
+                fieldDescriptor,
+                inOrderIndex,
+                expectedIndex,
+                config));
+      } else if (outOfOrderIndex != null) {
+        consumed[outOfOrderIndex] = true;
+        builder.addPairResult(
+            compareRepeatedFieldElementPair(
+                    actualList.get(outOfOrderIndex),
+                    expected,
+                    /*excludeNonRecursive=*/ false,
+                    fieldDescriptor,
+                    outOfOrderIndex,
+                    expectedIndex,
+                    config)
+                .toBuilder()
+                .setResult(Result.MOVED_OUT_OF_ORDER)
+                .build());
+      } else {
+        builder.addPairResult(
+            RepeatedField.PairResult.newBuilder()
+                .setResult(Result.REMOVED)
+                .setFieldDescriptor(fieldDescriptor)
+                .setExpected(expected)
+                .setExpectedFieldIndex(expectedIndex)
+                .build());
+      }
+    }
+
+    // Report any remaining not-in-order elements as ignored.
+    for (int index = 0; index < nextActualIndex; index++) {
+      if (!consumed[index]) {
+        builder.addPairResult(
+            RepeatedField.PairResult.newBuilder()
+                .setResult(Result.IGNORED)
+                .setFieldDescriptor(fieldDescriptor)
+                .setActual(actualList.get(index))
+                .setActualFieldIndex(index)
+                .build());
+      }
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * The unconsumed indices of all actual elements equal to some value, split at the current search
+   * position. Both deques are kept in ascending order.
+   */
+  private static final class ActualIndices {
+    final Deque<Integer> inOrder = new ArrayDeque<>();
+    final Deque<Integer> outOfOrder = new ArrayDeque<>();
+
+    // Returns the first index at or after 'minIndex', moving any skipped indices to 'outOfOrder'.
+    @NullableDecl
+    Integer pollInOrder(int minIndex) {
+      while (!inOrder.isEmpty() && inOrder.getFirst() < minIndex) {
+        outOfOrder.addLast(inOrder.removeFirst());
+      }
+      return inOrder.pollFirst();
+    }
+  }
+
+  /**
+   * Returns true if elements of the given repeated field are matched by {@code config} exactly when
+   * they are equal according to {@link Object#equals}.
+   *
+   * <p>This holds when no tolerances, partial scopes or field absence rules are in effect, and the
+   * repeated field rules cannot apply to anything within an element. It is conservative: a false
+   * result only means the general algorithm must be used.
+   */
+  private static boolean matchesByEquality(
+      FieldDescriptor fieldDescriptor, FluentEqualityConfig config) {
+    if (!config.matchesEqualMessages()) {
+      return false;
+    }
+    if (fieldDescriptor.getJavaType() != JavaType.MESSAGE) {
+      return true;
+    }
+    if (!config.compareFieldsScope().isAll()
+        || config.ignoreFieldAbsenceScope() != FieldScopeLogic.none()) {
+      return false;
+    }
+    // This is only called when the repeated field rules are in effect, so they may apply within
+    // an element unless it has no repeated fields.
+    return !mayContainRepeatedFields(
+        fieldDescriptor.getMessageType(), Sets.<Descriptor>newHashSet());
+  }
+
+  // Returns true if any message reachable from 'descriptor' has a repeated field, or could carry
+  // extensions, which we can't see from the descriptor alone.
+  private static boolean mayContainRepeatedFields(Descriptor descriptor, Set<Descriptor> visited) {
+    if (!visited.add(descriptor)) {
+      return false;
+    }
+    if (descriptor.isExtendable()) {
+      return true;
+    }
+    for (FieldDescriptor fieldDescriptor : descriptor.getFields()) {
+      if (fieldDescriptor.isRepeated()) {
+        return true;
+      }
+      if (fieldDescriptor.getJavaType() == JavaType.MESSAGE
+          && mayContainRepeatedFields(fieldDescriptor.getMessageType(), visited)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Returns true if all elements of both lists have the same runtime class. Different Message
+  // implementations of one type (e.g., DynamicMessage and a generated class) may be equal, but are
+  // not guaranteed to hash consistently.
+  private static boolean allElementsShareClass(List<?> actualList, List<?> expectedList) {
+    Class<?> elementClass = expectedList.get(0).getClass();
+    for (Object actual : actualList) {
+      if (actual.getClass() != elementClass) {
+        return false;
+      }
+    }
+    for (Object expected : expectedList) {
+      if (expected.getClass() != elementClass) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   // Given a list of values, a list of indexes into that list, and an expected value, find the first
   // actual value that compares equal to the expected value, and return the PairResult for it.
   // Also removes the index for the matching value from actualIndicies.
@@ -694,7 +999,7 @@ final class ProtoTruthMessageDifferencer {
       Optional<Correspondence<Number, Number>> correspondence
       ) {
     if (correspondence.isPresent()) {
-      return correspondence.get().compare(x, y);
+      return numbersCorrespond(correspondence.get(), x, y);
     } else {
       return Double.compare(x, y) == 0;
     }
@@ -706,12 +1011,32 @@ final class ProtoTruthMessageDifferencer {
       Optional<Correspondence<Number, Number>> correspondence
       ) {
     if (correspondence.isPresent()) {
-      return correspondence.get().compare(x, y);
+      return numbersCorrespond(correspondence.get(), x, y);
     } else {
       return Float.compare(x, y) == 0;
     }
   }
 
+  /**
+   * Compares {@code x} and {@code y} with {@code correspondence}, without boxing them if it's a
+   * {@link Correspondence#tolerance}, as the ones from {@link FluentEqualityConfig} are.
+   */
+  private static boolean numbersCorrespond(
+      Correspondence<Number, Number> correspondence, double x, double y) {
+    if (correspondence instanceof Correspondence.TolerantNumericEquality) {
+      return ((Correspondence.TolerantNumericEquality) correspondence).compare(x, y);
+    }
+    return correspondence.compare(x, y);
+  }
+
+  private static boolean numbersCorrespond(
+      Correspondence<Number, Number> correspondence, float x, float y) {
+    if (correspondence instanceof Correspondence.TolerantNumericEquality) {
+      return ((Correspondence.TolerantNumericEquality) correspondence).compare(x, y);
+    }
+    return correspondence.compare(x, y);
+  }
+
   private UnknownFieldSetDiff diffUnknowns(
       UnknownFieldSet actual, UnknownFieldSet expected, FluentEqualityConfig config) {
     UnknownFieldSetDiff.Builder builder = UnknownFieldSetDiff.newBuilder();
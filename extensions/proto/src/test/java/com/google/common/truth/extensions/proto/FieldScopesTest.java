@@ -870,6 +870,25 @@ public class FieldScopesTest extends ProtoSubjectTestBase {
     expectThatFailure().isNotNull();
   }
 
+  @Test
+  public void testFromSetFields_iterables_unionsNestedFields() {
+    Message message = parse("o_sub_test_message: { o_int: 1 r_string: \"foo\" o_float: 1.0 }");
+    Message eqMessage = parse("o_sub_test_message: { o_int: 1 r_string: \"foo\" o_float: 2.0 }");
+    Message diffMessage = parse("o_sub_test_message: { o_int: 1 r_string: \"bar\" }");
+    FieldScope scope =
+        FieldScopes.fromSetFields(
+            parse("o_sub_test_message: { o_int: 3 }"),
+            parse("r_sub_test_message: { o_float: 3.0 }"),
+            parse("o_sub_test_message: { r_string: \"baz\" }"));
+
+    // Scopes are immutable, so they can be reused across assertions.
+    for (int i = 0; i < 2; i++) {
+      expectThat(eqMessage).withPartialScope(scope).isEqualTo(message);
+      expectFailureWhenTesting().that(diffMessage).withPartialScope(scope).isEqualTo(message);
+      expectThatFailure().isNotNull();
+    }
+  }
+
   @Test
   public void testIterableFieldScopeMethodVariants_protoSubject() {
     Message message = parse("o_int: 1 r_string: \"foo\"");
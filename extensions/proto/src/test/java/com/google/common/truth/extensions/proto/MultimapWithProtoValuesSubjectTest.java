@@ -233,6 +233,32 @@ public class MultimapWithProtoValuesSubjectTest extends ProtoSubjectTestBase {
     expectThatFailure().isNotNull();
   }
 
+  @Test
+  public void testFluent_containsExactlyEntriesIn_matchesValuesWithinEachKey() {
+    // Each value corresponds to an expected value under the wrong key as well, so the values can
+    // only be paired up key by key.
+    expectThat(multimapOf(1, message1, 1, message2, 2, message2, 2, message1))
+        .ignoringFieldsForValues(ignoreFieldNumber)
+        .containsExactlyEntriesIn(
+            multimapOf(
+                2, eqIgnoredMessage1, 1, eqIgnoredMessage2, 1, eqIgnoredMessage1, 2, message2));
+
+    expectFailureWhenTesting()
+        .that(multimapOf(1, message1, 1, message2, 2, message1))
+        .ignoringFieldsForValues(ignoreFieldNumber)
+        .containsExactlyEntriesIn(
+            multimapOf(2, eqIgnoredMessage1, 1, eqIgnoredMessage2, 1, eqIgnoredMessage1))
+        .inOrder();
+    expectThatFailure().hasMessageThat().contains("contents match, but order was wrong");
+
+    expectFailureWhenTesting()
+        .that(multimapOf(1, message1, 1, message2, 2, message1))
+        .ignoringFieldsForValues(ignoreFieldNumber)
+        .containsExactlyEntriesIn(
+            multimapOf(1, eqIgnoredMessage1, 1, eqIgnoredMessage1, 2, eqIgnoredMessage2));
+    expectThatFailure().hasMessageThat().contains("missing");
+  }
+
   @Test
   public void testFluent_containsExactly_noArgs() {
     expectThat(ImmutableMultimap.<Object, Message>of())
@@ -546,6 +546,68 @@ public class ProtoSubjectTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testIgnoringExtraRepeatedFieldElements_duplicateSubMessages() {
+    int fieldNumber = getFieldNumber("r_sub_test_message");
+    Message message =
+        parse(
+            "r_sub_test_message: { o_int: 1 } r_sub_test_message: { o_int: 1 } "
+                + "r_sub_test_message: { o_int: 2 }");
+    Message eqMessage =
+        parse(
+            "r_sub_test_message: { o_int: 1 } r_sub_test_message: { o_int: 3 } "
+                + "r_sub_test_message: { o_int: 1 } r_sub_test_message: { o_int: 2 }");
+    Message diffMessage =
+        parse(
+            "r_sub_test_message: { o_int: 1 } r_sub_test_message: { o_int: 2 } "
+                + "r_sub_test_message: { o_int: 1 }");
+
+    expectThat(eqMessage)
+        .ignoringExtraRepeatedFieldElementsOfFields(fieldNumber)
+        .isEqualTo(message);
+    expectThat(diffMessage)
+        .ignoringExtraRepeatedFieldElementsOfFields(fieldNumber)
+        .isNotEqualTo(message);
+
+    expectFailureWhenTesting()
+        .that(eqMessage)
+        .ignoringExtraRepeatedFieldElementsOfFields(fieldNumber)
+        .isNotEqualTo(message);
+    expectThatFailure()
+        .hasMessageThat()
+        .contains("ignored: r_sub_test_message[?] -> r_sub_test_message[1]:");
+
+    expectFailureWhenTesting()
+        .that(diffMessage)
+        .ignoringExtraRepeatedFieldElementsOfFields(fieldNumber)
+        .isEqualTo(message);
+    expectThatFailure()
+        .hasMessageThat()
+        .contains("out_of_order: r_sub_test_message[2] -> r_sub_test_message[1]:");
+  }
+
+  @Test
+  public void testComparingFieldsInParallel() {
+    StringBuilder textProto = new StringBuilder("o_int: 3 ");
+    for (int i = 0; i < 300; i++) {
+      textProto.append("r_string: '").append(i).append("' ");
+      textProto.append("r_sub_test_message: { o_int: ").append(i).append(" } ");
+    }
+    Message message = parse(textProto.toString());
+    Message diffMessage = parse(textProto.toString().replace("o_int: 150 ", "o_int: 151 "));
+
+    expectThat(message).comparingFieldsInParallel().isEqualTo(message);
+    expectThat(diffMessage).comparingFieldsInParallel().isNotEqualTo(message);
+
+    expectFailureWhenTesting().that(diffMessage).isEqualTo(message);
+    String sequentialFailure = multiExpectFailure.getFailure().getMessage();
+    expectFailureWhenTesting().that(diffMessage).comparingFieldsInParallel().isEqualTo(message);
+    expectThatFailure().hasMessageThat().isEqualTo(sequentialFailure);
+    expectThatFailure()
+        .hasMessageThat()
+        .contains("modified: r_sub_test_message[150].o_int: 150 -> 151");
+  }
+
   // Utility which fills a proto map field, based on the java.util.Map.
   private Message makeProtoMap(Map<String, Integer> map) {
     StringBuilder textProto = new StringBuilder();
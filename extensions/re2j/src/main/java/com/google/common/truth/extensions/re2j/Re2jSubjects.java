@@ -15,13 +15,27 @@
  */
 package com.google.common.truth.extensions.re2j;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.lenientFormat;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.truth.Fact.simpleFact;
 
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.Subject;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.re2j.Matcher;
 import com.google.re2j.Pattern;
+import com.google.re2j.PatternSyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Truth subjects for re2j regular expressions.
@@ -70,7 +84,7 @@ public final class Re2jSubjects {
 
     /** Fails if the string does not match the given regex. */
     public void matches(String regex) {
-      if (!Pattern.matches(regex, actual())) {
+      if (!compile(regex).matcher(actual()).matches()) {
         fail("matches", regex);
       }
     }
@@ -85,7 +99,7 @@ public final class Re2jSubjects {
 
     /** Fails if the string matches the given regex. */
     public void doesNotMatch(String regex) {
-      if (Pattern.matches(regex, actual())) {
+      if (compile(regex).matcher(actual()).matches()) {
         fail("fails to match", regex);
       }
     }
@@ -140,13 +154,188 @@ public final class Re2jSubjects {
       }
     }
 
+    /**
+     * Fails unless the string contains a match for each of the given regexes, reporting those
+     * which have none.
+     *
+     * <p>The regexes are searched for together, as one alternation, which RE2J scans in linear
+     * time.
+     */
+    public void containsAllMatchesOf(String firstRegex, String... restOfRegexes) {
+      List<String> regexes = Lists.asList(firstRegex, restOfRegexes);
+      Set<String> missing = new LinkedHashSet<>(regexes);
+      missing.removeAll(regexesWithMatches(actual(), regexes));
+      if (!missing.isEmpty()) {
+        failWithoutActual(
+            simpleFact(
+                lenientFormat(
+                    "%s should have contained matches for all of <%s>, but contained no match "
+                        + "for <%s>",
+                    actualAsString(), regexes, missing)));
+      }
+    }
+
+    /**
+     * Fails if the string contains a match for any of the given regexes, reporting those which do.
+     *
+     * <p>The regexes are searched for together, as one alternation, which RE2J scans in linear
+     * time.
+     */
+    public void containsNoMatchesOf(String firstRegex, String... restOfRegexes) {
+      List<String> regexes = Lists.asList(firstRegex, restOfRegexes);
+      Set<String> present = regexesWithMatches(actual(), regexes);
+      if (!present.isEmpty()) {
+        failWithoutActual(
+            simpleFact(
+                lenientFormat(
+                    "%s should not have contained a match for any of <%s>, but contained matches "
+                        + "for <%s>",
+                    actualAsString(), regexes, present)));
+      }
+    }
+
     private static String quote(CharSequence toBeWrapped) {
       return "\"" + toBeWrapped + "\"";
     }
 
     private static boolean doContainsMatch(String subject, String regex) {
-      return Pattern.compile(regex).matcher(subject).find();
+      return compile(regex).matcher(subject).find();
+    }
+  }
+
+  /**
+   * The maximum number of regexes combined into one alternation by {@link #regexesWithMatches}.
+   * Finding which alternative matched means tracking every capturing group of the alternation
+   * through the match, so the cost of each match grows with the square of the number of
+   * alternatives. Searching for a few smaller alternations instead costs about the same as one
+   * large one, since RE2J's running time is proportional to the size of the regex anyway.
+   */
+  private static final int MAX_ALTERNATIVES = 32;
+
+  /**
+   * Returns the regexes which have a match in {@code subject}, in their original order.
+   *
+   * <p>The regexes are searched for in groups of up to {@value #MAX_ALTERNATIVES}.
+   */
+  private static Set<String> regexesWithMatches(String subject, List<String> regexes) {
+    checkNotNull(subject);
+    Set<String> found = new LinkedHashSet<>();
+    List<String> distinct = new ArrayList<>(new LinkedHashSet<>(regexes));
+    for (List<String> block : Lists.partition(distinct, MAX_ALTERNATIVES)) {
+      addRegexesWithMatches(subject, block, found);
+    }
+
+    Set<String> result = new LinkedHashSet<>();
+    for (String regex : regexes) {
+      if (found.contains(regex)) {
+        result.add(regex);
+      }
     }
+    return result;
+  }
+
+  /**
+   * Adds those of {@code regexes} which have a match in {@code subject} to {@code found}.
+   *
+   * <p>The regexes are combined into an alternation, compiled once, and the string is scanned from
+   * match to match, recording which alternative matched each time. An alternative can be shadowed,
+   * though, if it only matches where an earlier alternative also matches. So if any regexes were
+   * found, those still missing are combined and scanned for again, until a scan finds no more.
+   * Unless regexes shadow each other, that is one scan of the string to find them all, and one more
+   * to confirm that the rest are missing.
+   */
+  private static void addRegexesWithMatches(
+      String subject, List<String> regexes, Set<String> found) {
+    List<String> remaining = regexes;
+    while (!remaining.isEmpty()) {
+      // Wrap each regex in a group, to tell which one matched.
+      StringBuilder alternation = new StringBuilder();
+      int[] groups = new int[remaining.size()];
+      int group = 1;
+      for (int i = 0; i < remaining.size(); i++) {
+        groups[i] = group;
+        group += compile(remaining.get(i)).groupCount() + 1;
+        alternation.append(i == 0 ? "(" : "|(").append(remaining.get(i)).append(')');
+      }
+
+      Matcher matcher;
+      try {
+        matcher = compile(alternation.toString()).matcher(subject);
+      } catch (PatternSyntaxException e) {
+        // The regexes are valid on their own, but can't be combined, e.g. because they reuse
+        // group names. Search for each separately.
+        for (String regex : remaining) {
+          if (compile(regex).matcher(subject).find()) {
+            found.add(regex);
+          }
+        }
+        break;
+      }
+
+      boolean[] matched = new boolean[remaining.size()];
+      int matchedCount = 0;
+      int start = 0;
+      while (matchedCount < matched.length && start <= subject.length() && matcher.find(start)) {
+        for (int i = 0; i < groups.length; i++) {
+          if (matcher.start(groups[i]) >= 0) {
+            if (!matched[i]) {
+              matched[i] = true;
+              matchedCount++;
+            }
+            break;
+          }
+        }
+        start = Math.max(matcher.end(), matcher.start() + 1);
+      }
+      if (matchedCount == 0) {
+        break;
+      }
+      List<String> unmatched = new ArrayList<>();
+      for (int i = 0; i < matched.length; i++) {
+        if (matched[i]) {
+          found.add(remaining.get(i));
+        } else {
+          unmatched.add(remaining.get(i));
+        }
+      }
+      remaining = unmatched;
+    }
+  }
+
+  /**
+   * The maximum number of compiled patterns kept by {@link #compile}. This cache mirrors the one
+   * core Truth keeps for {@code java.util.regex} patterns, in its {@code Platform} class, which
+   * explains the choices made for both.
+   */
+  private static final int MAX_CACHED_PATTERNS = 1024;
+
+  private static final LoadingCache<String, Pattern> PATTERNS =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CACHED_PATTERNS)
+          .recordStats()
+          .build(
+              new CacheLoader<String, Pattern>() {
+                @Override
+                public Pattern load(String regex) {
+                  return Pattern.compile(regex);
+                }
+              });
+
+  /** Returns the compiled form of the given regex, which is cached. */
+  private static Pattern compile(String regex) {
+    checkNotNull(regex);
+    try {
+      return PATTERNS.getUnchecked(regex);
+    } catch (UncheckedExecutionException e) {
+      // Usually a PatternSyntaxException, which should propagate as if we'd compiled it ourselves.
+      throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  /** Returns the hit and miss counts of {@link #PATTERNS}, for tests. */
+  static CacheStats patternCacheStats() {
+    return PATTERNS.stats();
   }
 
   private Re2jSubjects() {}
@@ -16,9 +16,14 @@
 package com.google.common.truth.extensions.re2j;
 
 import static com.google.common.truth.Truth.assertAbout;
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.extensions.re2j.Re2jSubjects.re2jString;
+import static org.junit.Assert.fail;
 
 import com.google.re2j.Pattern;
+import com.google.re2j.PatternSyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -68,4 +73,87 @@ public class Re2jSubjectsTest {
   public void doesNotContainMatch_pattern_succeeds() {
     assertAbout(re2jString()).that("hello cruel world").doesNotContainMatch(PATTERN);
   }
+
+  @Test
+  public void containsAllMatchesOf_succeeds() {
+    // Matches of "she", "he" and "hers" overlap, so they are found at the same positions.
+    assertAbout(re2jString())
+        .that("ushers")
+        .containsAllMatchesOf("she", "he", "hers", "s$", "(u)(.)h", "");
+  }
+
+  @Test
+  public void containsAllMatchesOf_shadowedAlternatives() {
+    // Each regex only matches where the ones before it match too.
+    assertAbout(re2jString()).that("abcd").containsAllMatchesOf("a", "ab", "abc", "abcd");
+  }
+
+  @Test
+  public void containsAllMatchesOf_manyRegexes_compiledOnce() {
+    StringBuilder log = new StringBuilder();
+    List<String> regexes = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      log.append("event ").append(i).append(" done\n");
+      regexes.add("event " + i + " (done|failed)\n");
+    }
+    String first = regexes.get(0);
+    String[] rest = regexes.subList(1, regexes.size()).toArray(new String[0]);
+    assertAbout(re2jString()).that(log.toString()).containsAllMatchesOf(first, rest);
+    long misses = Re2jSubjects.patternCacheStats().missCount();
+    assertAbout(re2jString()).that(log.toString()).containsAllMatchesOf(first, rest);
+    assertThat(Re2jSubjects.patternCacheStats().missCount()).isEqualTo(misses);
+  }
+
+  @Test
+  public void containsAllMatchesOf_fails() {
+    try {
+      assertAbout(re2jString()).that("ushers").containsAllMatchesOf("she", "his", "^h", "h(e)rs");
+      fail();
+    } catch (AssertionError expected) {
+      assertThat(expected)
+          .hasMessageThat()
+          .isEqualTo(
+              "<\"ushers\"> should have contained matches for all of <[she, his, ^h, h(e)rs]>, "
+                  + "but contained no match for <[his, ^h]>");
+    }
+  }
+
+  @Test
+  public void containsNoMatchesOf_succeeds() {
+    assertAbout(re2jString()).that("ushers").containsNoMatchesOf("his", "^h", "rs.", "(?P<x>z)");
+  }
+
+  @Test
+  public void containsNoMatchesOf_fails() {
+    try {
+      assertAbout(re2jString())
+          .that("ushers")
+          .containsNoMatchesOf("his", "(?P<x>rs)$", "(?P<x>he)", "x*");
+      fail();
+    } catch (AssertionError expected) {
+      assertThat(expected)
+          .hasMessageThat()
+          .endsWith("but contained matches for <[(?P<x>rs)$, (?P<x>he), x*]>");
+    }
+  }
+
+  @Test
+  public void stringRegexes_reuseCompiledPatterns() {
+    String regex = "re(use)+d?";
+    long hits = Re2jSubjects.patternCacheStats().hitCount();
+    assertAbout(re2jString()).that("reuse").matches(regex);
+    assertAbout(re2jString()).that("reused").containsMatch(regex);
+    assertAbout(re2jString()).that("used").doesNotMatch(regex);
+    assertAbout(re2jString()).that("used").doesNotContainMatch(regex);
+    assertThat(Re2jSubjects.patternCacheStats().hitCount() - hits).isAtLeast(3L);
+  }
+
+  @Test
+  public void matches_invalidRegex_throws() {
+    try {
+      assertAbout(re2jString()).that("abc").matches("(");
+      fail();
+    } catch (PatternSyntaxException expected) {
+    }
+  }
 }